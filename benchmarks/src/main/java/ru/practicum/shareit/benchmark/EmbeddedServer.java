@@ -0,0 +1,42 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запуск сервера в текущей JVM на встроенной H2 без подробного журнала.
+ */
+public final class EmbeddedServer {
+
+    // аргументы командной строки перекрывают application.properties сервера
+    private static final List<String> QUIET_LOGGING = List.of(
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.orm.jpa=WARN",
+            "--logging.level.org.springframework.transaction=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+            "--logging.level.ru.practicum.shareit=WARN"
+    );
+
+    private EmbeddedServer() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseUrl, WebApplicationType webType,
+                                                       String... extraArgs) {
+        List<String> args = new ArrayList<>(QUIET_LOGGING);
+        args.add("--spring.datasource.url=" + databaseUrl);
+        args.add("--spring.datasource.username=sa");
+        args.add("--spring.datasource.password=");
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(webType)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.TestUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение вещей владельца и поиск вещей через полный контекст сервера на встроенной H2.
+ * Данные записываются один раз на прогон: OWNERS владельцев, у каждого itemsPerOwner вещей
+ * с прошедшим и будущим бронированием и комментарием; каждая десятая вещь находится поиском.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    private static final int OWNERS = 10;
+    private static final String SEARCH_TEXT = "drill";
+
+    @Param({"10", "1000"})
+    private int itemsPerOwner;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+    private LocalDateTime now;
+
+    @Setup
+    public void setup() {
+        context = EmbeddedServer.start("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", WebApplicationType.NONE);
+        itemService = context.getBean(ItemService.class);
+        now = LocalDateTime.now();
+
+        seed();
+        // данные записаны мимо сервисов, поэтому индекс поиска и сводки бронирований строятся заново
+        context.getBean(ItemSearchIndex.class).build();
+        context.getBean(ItemBookingSummaryService.class).backfill();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> getByUserId() {
+        return itemService.getByUserId(ownerId, now);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemService.search(SEARCH_TEXT);
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User booker = userRepository.save(TestUtil.getUser());
+        for (int o = 0; o < OWNERS; o++) {
+            User owner = userRepository.save(TestUtil.getUser());
+            ownerId = owner.getId();
+
+            List<Item> items = new ArrayList<>(itemsPerOwner);
+            for (int i = 0; i < itemsPerOwner; i++) {
+                Item item = TestUtil.getItem(owner);
+                item.setComments(new ArrayList<>());
+                if (i % 10 == 0) {
+                    item.setDescription(item.getDescription() + " " + SEARCH_TEXT);
+                }
+                items.add(item);
+            }
+            itemRepository.saveAll(items);
+
+            List<Booking> bookings = new ArrayList<>(2 * itemsPerOwner);
+            List<Comment> comments = new ArrayList<>(itemsPerOwner);
+            for (Item item : items) {
+                bookings.add(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED));
+                bookings.add(new Booking(null, now.plusDays(2), now.plusDays(3), item, booker, BookingStatus.WAITING));
+                comments.add(new Comment(null, TestUtil.randomString(20), booker, item, null));
+            }
+            bookingRepository.saveAll(bookings);
+            commentRepository.saveAll(comments);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingMapperImpl;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.util.TestUtil;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование списков вещей и бронирований в DTO без Spring и базы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "100", "10000", "100000"})
+    private int size;
+
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setup() {
+        itemMapper = new ItemMapperImpl();
+        bookingMapper = new BookingMapperImpl(itemMapper, new UserMapperImpl());
+
+        User owner = TestUtil.getUser(1L);
+        User booker = TestUtil.getUser(2L);
+        LocalDateTime start = LocalDateTime.parse("2030-01-01T00:00:00");
+
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = TestUtil.getItem(owner);
+            item.setId((long) i);
+            // у каждой вещи один комментарий, как в типичном ответе
+            item.setComments(List.of(new Comment((long) i, TestUtil.randomString(20), booker, item, Instant.now())));
+            items.add(item);
+            bookings.add(new Booking((long) i, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, booker, BookingStatus.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsToDto() {
+        return itemMapper.toDto(items);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsToDto() {
+        return bookingMapper.toDto(bookings);
+    }
+}
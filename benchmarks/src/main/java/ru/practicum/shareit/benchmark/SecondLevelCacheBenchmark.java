@@ -0,0 +1,151 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.CreateBookingRequest;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.TestUtil;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Просмотр вещи и создание бронирования с кэшем второго уровня Hibernate и без него.
+ * Кроме времени выводится число SQL-запросов на операцию (statementsPerOp).
+ * Каждая операция - отдельная транзакция, как запрос к серверу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int COMMENTS = 5;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate tx;
+    private ItemService itemService;
+    private ItemMapper itemMapper;
+    private BookingService bookingService;
+    private Statistics statistics;
+
+    private long itemId;
+    private long bookerId;
+    private LocalDateTime nextStart;
+
+    @Setup
+    public void setup() {
+        context = EmbeddedServer.start("jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1", WebApplicationType.NONE,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.generate_statistics=true");
+        tx = context.getBean(TransactionTemplate.class);
+        itemService = context.getBean(ItemService.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        bookingService = context.getBean(BookingService.class);
+        statistics = context.getBean(SessionFactory.class).getStatistics();
+        nextStart = LocalDateTime.now().plusDays(1);
+
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemDto getItem(RoundTrips roundTrips) {
+        ItemDto dto = tx.execute(status -> itemMapper.toDto(itemService.getById(itemId)));
+        roundTrips.operations++;
+        return dto;
+    }
+
+    @Benchmark
+    public Booking createBooking(RoundTrips roundTrips) {
+        // бронирования идут подряд по часу, чтобы не пересекаться
+        LocalDateTime start = nextStart;
+        nextStart = nextStart.plusHours(1);
+        Booking booking = tx.execute(status -> bookingService.createBooking(
+                new CreateBookingRequest(itemId, start, start.plusMinutes(30)), bookerId));
+        roundTrips.operations++;
+        return booking;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        public double statementsPerOp;
+
+        private long operations;
+        private long statementsAtStart;
+
+        @Setup(Level.Iteration)
+        public void start(SecondLevelCacheBenchmark benchmark) {
+            operations = 0;
+            statementsAtStart = benchmark.statistics.getPrepareStatementCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void finish(SecondLevelCacheBenchmark benchmark) {
+            long statements = benchmark.statistics.getPrepareStatementCount() - statementsAtStart;
+            statementsPerOp = operations == 0 ? 0 : (double) statements / operations;
+        }
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User owner = userRepository.save(TestUtil.getUser());
+        bookerId = userRepository.save(TestUtil.getUser()).getId();
+
+        Item item = TestUtil.getItem(owner);
+        item.setComments(new ArrayList<>());
+        item.setAvailable(true);
+        itemId = itemRepository.save(item).getId();
+
+        List<Comment> comments = new ArrayList<>(COMMENTS);
+        for (int i = 0; i < COMMENTS; i++) {
+            User author = userRepository.save(TestUtil.getUser());
+            comments.add(new Comment(null, TestUtil.randomString(20), author, item, Instant.now()));
+        }
+        commentRepository.saveAll(comments);
+    }
+}
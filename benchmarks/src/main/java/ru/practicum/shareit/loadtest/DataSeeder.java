@@ -0,0 +1,144 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.util.TestUtil;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Заполнение пустой базы пакетными вставками. Строки генерируются по одной и уходят в базу
+ * пачками по BATCH_SIZE, поэтому в памяти держатся только владельцы вещей.
+ * Ссылки между таблицами опираются на идентификаторы подряд с 1. Пользователям их выдает identity,
+ * остальным таблицам они задаются явно: последовательности выдают идентификаторы блоками по 50
+ * и после заполнения продолжаются за последним из них.
+ */
+class DataSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbc;
+    private final LoadTestOptions options;
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime bookingPeriodStart;
+    private final long bookingSlotMinutes;
+
+    DataSeeder(JdbcTemplate jdbc, LoadTestOptions options) {
+        this.jdbc = jdbc;
+        this.options = options;
+
+        long bookingsPerItem = Math.max(1, (options.bookings() + options.items() - 1) / options.items());
+        this.bookingPeriodStart = now.minusYears(options.years());
+        this.bookingSlotMinutes = Duration.between(bookingPeriodStart, now.plusYears(1)).toMinutes() / bookingsPerItem;
+    }
+
+    boolean isEmpty() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class) == 0;
+    }
+
+    void seed() {
+        insert("users", "INSERT INTO users (name, email) VALUES (?, ?)", options.users(), i -> new Object[]{
+                TestUtil.randomString(7), "user" + i + "@shareit.ru"});
+
+        insertNumbered("item_requests", "INSERT INTO item_requests (id, description, requester_id, created) VALUES (?, ?, ?, ?)",
+                options.requests(), i -> new Object[]{
+                        RussianText.requestDescription(), randomId(options.users()), pastTimestamp()});
+
+        // владелец каждой вещи нужен, чтобы арендатором не оказался он сам
+        long[] owners = new long[Math.toIntExact(options.items())];
+        insertNumbered("items", "INSERT INTO items (id, owner_id, name, description, available, request_id) VALUES (?, ?, ?, ?, ?, ?)",
+                options.items(), i -> {
+                    owners[(int) i] = randomId(options.users());
+                    String name = RussianText.itemName();
+                    boolean answersRequest = options.requests() > 0 && random().nextInt(5) == 0;
+                    return new Object[]{owners[(int) i], name, RussianText.itemDescription(name),
+                            !(TestUtil.randomBoolean() && TestUtil.randomBoolean()),
+                            answersRequest ? randomId(options.requests()) : null};
+                });
+
+        insertNumbered("bookings", "INSERT INTO bookings (id, book_start, book_end, item_id, booker_id, book_status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", options.bookings(), i -> booking(i, owners));
+
+        insertNumbered("comments", "INSERT INTO comments (id, comment_text, author_id, item_id, created) VALUES (?, ?, ?, ?, ?)",
+                options.comments(), i -> new Object[]{
+                        RussianText.comment(), randomId(options.users()), randomId(options.items()), pastTimestamp()});
+    }
+
+    /**
+     * Бронирования раскладываются по вещам по кругу. Период в years лет до текущего момента и год после
+     * делится для каждой вещи на равные отрезки, в каждом отрезке одно бронирование, поэтому бронирования
+     * одной вещи не пересекаются.
+     */
+    private Object[] booking(long i, long[] owners) {
+        int itemIndex = (int) (i % owners.length);
+        long slot = i / owners.length;
+
+        LocalDateTime start = bookingPeriodStart.plusMinutes(slot * bookingSlotMinutes
+                + random().nextLong(bookingSlotMinutes / 2 + 1));
+        LocalDateTime end = start.plusMinutes(1 + random().nextLong(Math.max(1, bookingSlotMinutes / 2)));
+
+        long booker;
+        do {
+            booker = randomId(options.users());
+        } while (booker == owners[itemIndex] && options.users() > 1);
+
+        return new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemIndex + 1L, booker,
+                status(start).name()};
+    }
+
+    private BookingStatus status(LocalDateTime start) {
+        int dice = random().nextInt(10);
+        if (start.isAfter(now)) {
+            return dice < 5 ? BookingStatus.WAITING : BookingStatus.APPROVED;
+        }
+        return dice < 8 ? BookingStatus.APPROVED : dice < 9 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+    }
+
+    private void insert(String table, String sql, long count, LongFunction<Object[]> row) {
+        long started = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+        System.out.printf("seeded %,d %s in %,d ms%n", count, table, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // первым параметром строки идет ее идентификатор i + 1
+    private void insertNumbered(String table, String sql, long count, LongFunction<Object[]> row) {
+        insert(table, sql, count, i -> {
+            Object[] values = row.apply(i);
+            Object[] numbered = new Object[values.length + 1];
+            numbered[0] = i + 1;
+            System.arraycopy(values, 0, numbered, 1, values.length);
+            return numbered;
+        });
+        // следующий блок Hibernate начнется за последним явно заданным идентификатором
+        jdbc.execute("ALTER SEQUENCE " + table + "_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM "
+                + table + ")");
+    }
+
+    private Timestamp pastTimestamp() {
+        return Timestamp.valueOf(now.minusMinutes(random().nextLong(options.years() * 365L * 24 * 60 + 1)));
+    }
+
+    private static long randomId(long count) {
+        return 1 + random().nextLong(count);
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Время ответов по конечным точкам и итоговый отчет с перцентилями и пропускной способностью.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, int status, long nanos) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(status, nanos);
+    }
+
+    // запрос не удалось отправить: ошибка учитывается, а времени ответа нет
+    void error(String endpoint, int status) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).fail(status);
+    }
+
+    String report(String title, Duration measured) {
+        StringBuilder report = new StringBuilder()
+                .append(title).append('\n')
+                .append(String.format("%-24s %9s %9s %9s %9s %9s  %s%n",
+                        "endpoint", "requests", "rps", "p50 ms", "p99 ms", "max ms", "errors"));
+
+        new TreeMap<>(samples).forEach((endpoint, s) -> {
+            long[] sorted = s.sorted();
+            report.append(String.format("%-24s %9d %9.1f %9.2f %9.2f %9.2f  %s%n",
+                    endpoint,
+                    sorted.length,
+                    sorted.length / (measured.toMillis() / 1000.0),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                    s.errors()));
+        });
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+
+        // число ответов не из 2xx по статусам, 0 - ответа нет
+        private final Map<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(int status, long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (status / 100 != 2) {
+                fail(status);
+            }
+        }
+
+        void fail(int status) {
+            failures.computeIfAbsent(status, st -> new LongAdder()).increment();
+        }
+
+        String errors() {
+            if (failures.isEmpty()) {
+                return "-";
+            }
+            StringBuilder errors = new StringBuilder();
+            new TreeMap<>(failures).forEach((status, count) ->
+                    errors.append(errors.isEmpty() ? "" : " ").append(status).append(':').append(count.sum()));
+            return errors.toString();
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.loadtest;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.benchmark.EmbeddedServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный прогон шлюза и сервера на локальной H2.
+ * <p>
+ * База заполняется один раз, повторные запуски с той же базой сразу переходят к нагрузке.
+ * Сервер запускается в этой JVM, шлюз - отдельным процессом из своего jar, так как классы
+ * модулей совпадают по именам. Для каждого режима из --threads (virtual, platform) оба
+ * приложения перезапускаются, и печатается свой отчет, что позволяет сравнить режимы.
+ * <pre>
+ * mvn -Pbenchmarks -DskipTests package
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.loadtest.LoadTest --scale=10 --threads=virtual,platform
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        seedIfEmpty(options);
+
+        for (boolean virtualThreads : options.virtualThreads()) {
+            System.out.println(run(options, virtualThreads));
+        }
+    }
+
+    private static void seedIfEmpty(LoadTestOptions options) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(options.databaseUrl(), "sa", "", true);
+        try {
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                    .load()
+                    .migrate();
+            DataSeeder seeder = new DataSeeder(new JdbcTemplate(dataSource), options);
+            if (seeder.isEmpty()) {
+                seeder.seed();
+            } else {
+                System.out.println("database is already seeded, reusing it");
+            }
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static String run(LoadTestOptions options, boolean virtualThreads) throws Exception {
+        String threads = "--spring.threads.virtual.enabled=" + virtualThreads;
+        ConfigurableApplicationContext server = EmbeddedServer.start(options.databaseUrl(), WebApplicationType.SERVLET,
+                "--server.port=" + options.serverPort(), threads);
+        Process gateway = startGateway(options, threads);
+        try {
+            String gatewayUrl = "http://localhost:" + options.gatewayPort();
+            awaitHealthy(gatewayUrl, gateway);
+
+            JdbcTemplate jdbc = server.getBean(JdbcTemplate.class);
+            List<Map<String, Object>> items = jdbc.queryForList("SELECT id, owner_id FROM items WHERE available");
+            long[] itemIds = items.stream().mapToLong(row -> ((Number) row.get("id")).longValue()).toArray();
+            long[] itemOwners = items.stream().mapToLong(row -> ((Number) row.get("owner_id")).longValue()).toArray();
+            long users = jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+
+            LatencyRecorder recorder = new Workload(gatewayUrl, itemIds, itemOwners, users, options.mix())
+                    .run(options.concurrency(), options.warmup(), options.duration());
+
+            return recorder.report(String.format("%s threads, concurrency %d, %d items, %s",
+                    virtualThreads ? "virtual" : "platform", options.concurrency(), itemIds.length,
+                    options.duration()), options.duration());
+        } finally {
+            gateway.destroy();
+            gateway.waitFor();
+            server.close();
+        }
+    }
+
+    private static Process startGateway(LoadTestOptions options, String threads) throws IOException {
+        Path log = Path.of("target", "loadtest", "gateway.log");
+        Files.createDirectories(log.getParent());
+
+        return new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", options.gatewayJar().toString(),
+                "--server.port=" + options.gatewayPort(),
+                "--shareit-server.url=http://localhost:" + options.serverPort(),
+                // лимиты шлюза рассчитаны на одного пользователя, а не на генератор нагрузки
+                "--shareit-gateway.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN",
+                "--logging.level.ru.practicum.shareit=WARN",
+                threads)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitHealthy(String gatewayUrl, Process gateway) throws InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(gatewayUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!gateway.isAlive()) {
+                throw new IllegalStateException("gateway exited with code " + gateway.exitValue()
+                        + ", see target/loadtest/gateway.log");
+            }
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // шлюз еще не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("gateway did not start in " + STARTUP_TIMEOUT);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида --name=value.
+ * Объемы данных умножаются на scale: --scale=100 дает порядка миллиона бронирований.
+ */
+public record LoadTestOptions(
+        String databaseUrl,
+        Path gatewayJar,
+        int serverPort,
+        int gatewayPort,
+        long users,
+        long requests,
+        long items,
+        long bookings,
+        long comments,
+        int years,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        List<Boolean> virtualThreads
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("ожидается аргумент вида --name=value: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        double scale = Double.parseDouble(values.getOrDefault("scale", "1"));
+        return new LoadTestOptions(
+                values.getOrDefault("db", "jdbc:h2:file:./target/loadtest/shareit"),
+                Path.of(values.getOrDefault("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar")),
+                Integer.parseInt(values.getOrDefault("server-port", "19090")),
+                Integer.parseInt(values.getOrDefault("gateway-port", "18080")),
+                scaled(values, "users", 1_000, scale),
+                scaled(values, "requests", 500, scale),
+                scaled(values, "items", 5_000, scale),
+                scaled(values, "bookings", 10_000, scale),
+                scaled(values, "comments", 5_000, scale),
+                Integer.parseInt(values.getOrDefault("years", "3")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Operation.parseMix(values.getOrDefault("mix", "search:40,owner-bookings:40,booking:20")),
+                Arrays.stream(values.getOrDefault("threads", "virtual").split(","))
+                        .map(mode -> switch (mode.trim()) {
+                            case "virtual" -> true;
+                            case "platform" -> false;
+                            default -> throw new IllegalArgumentException("неизвестный режим потоков: " + mode);
+                        })
+                        .toList()
+        );
+    }
+
+    private static long scaled(Map<String, String> values, String name, long base, double scale) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : Math.round(base * scale);
+    }
+}
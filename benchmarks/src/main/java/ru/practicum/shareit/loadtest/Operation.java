@@ -0,0 +1,39 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Операции смешанной нагрузки.
+ */
+public enum Operation {
+    SEARCH("search"),
+    OWNER_BOOKINGS("owner-bookings"),
+    // создание бронирования и его подтверждение владельцем
+    BOOKING("booking");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    // search:40,owner-bookings:40,booking:20 - веса операций
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] keyAndWeight = part.split(":");
+            weights.put(byKey(keyAndWeight[0].trim()), Integer.parseInt(keyAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("неизвестная операция: " + key);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import ru.practicum.shareit.util.TestUtil;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Названия, описания и комментарии на русском, похожие на настоящие объявления.
+ */
+final class RussianText {
+
+    static final List<String> THINGS = List.of(
+            "дрель", "перфоратор", "шуруповерт", "лестница", "палатка", "велосипед", "самокат",
+            "лыжи", "сноуборд", "пила", "болгарка", "газонокосилка", "мангал", "спальник",
+            "рюкзак", "проектор", "колонка", "фотоаппарат", "штатив", "надувная лодка");
+
+    private static final List<String> PURPOSES = List.of(
+            "для дачи", "для похода", "для ремонта", "для поездок", "для праздника",
+            "профессионального класса", "из домашнего проката", "для начинающих");
+
+    private static final List<String> STATES = List.of(
+            "в хорошем состоянии", "без царапин", "с зарядкой и кейсом", "есть следы использования",
+            "только после обслуживания", "в комплекте инструкция");
+
+    private static final List<String> REVIEWS = List.of(
+            "Все отлично, спасибо!", "Вещь в порядке, владелец пунктуальный.", "Работает как надо.",
+            "Немного потертая, но свою задачу выполнила.", "Рекомендую, брал на выходные.",
+            "Удобно забрать и вернуть.");
+
+    private RussianText() {
+    }
+
+    static String itemName() {
+        return capitalize(pick(THINGS));
+    }
+
+    static String itemDescription(String name) {
+        return name + " " + pick(PURPOSES) + ", " + pick(STATES)
+                + ". Артикул " + TestUtil.randomString(6);
+    }
+
+    static String requestDescription() {
+        return "Ищу " + pick(THINGS) + " " + pick(PURPOSES) + " на " + (1 + random(14)) + " дн.";
+    }
+
+    static String comment() {
+        return pick(REVIEWS);
+    }
+
+    static String searchText() {
+        return pick(THINGS);
+    }
+
+    private static String pick(List<String> words) {
+        return words.get(random(words.size()));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Смешанная нагрузка на шлюз: concurrency потоков без пауз выполняют операции в пропорциях mix.
+ * Ответы за время прогрева не учитываются.
+ */
+class Workload {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    // новые бронирования ставятся далеко за сгенерированными, чтобы почти не пересекаться
+    private static final long NEW_BOOKINGS_OFFSET_YEARS = 2;
+    private static final long NEW_BOOKINGS_SPREAD_HOURS = 20L * 365 * 24;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private final String gatewayUrl;
+    private final long[] itemIds;
+    private final long[] itemOwners;
+    private final long users;
+    private final Operation[] weighted;
+
+    Workload(String gatewayUrl, long[] itemIds, long[] itemOwners, long users, Map<Operation, Integer> mix) {
+        this.gatewayUrl = gatewayUrl;
+        this.itemIds = itemIds;
+        this.itemOwners = itemOwners;
+        this.users = users;
+        this.weighted = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+
+    LatencyRecorder run(int concurrency, Duration warmup, Duration duration) {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long until = measureFrom + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < until) {
+                        runOnce(System.nanoTime() >= measureFrom);
+                    }
+                });
+            }
+        }
+        return recorder;
+    }
+
+    private void runOnce(boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int item = random.nextInt(itemIds.length);
+
+        switch (weighted[random.nextInt(weighted.length)]) {
+            case SEARCH -> call("GET /items/search", get("/items/search?text="
+                    + URLEncoder.encode(RussianText.searchText(), StandardCharsets.UTF_8)), randomUser(), measured);
+            case OWNER_BOOKINGS -> call("GET /bookings/owner", get("/bookings/owner?state=ALL"),
+                    itemOwners[item], measured);
+            case BOOKING -> createAndApprove(item, measured);
+        }
+    }
+
+    private void createAndApprove(int item, boolean measured) {
+        long booker;
+        do {
+            booker = randomUser();
+        } while (booker == itemOwners[item] && users > 1);
+
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .plusYears(NEW_BOOKINGS_OFFSET_YEARS)
+                .plusHours(ThreadLocalRandom.current().nextLong(NEW_BOOKINGS_SPREAD_HOURS));
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                itemIds[item], start, start.plusHours(1));
+
+        HttpResponse<String> created = call("POST /bookings", request("/bookings")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), booker, measured);
+        if (created == null || created.statusCode() != 200 && created.statusCode() != 201) {
+            return;
+        }
+
+        JsonNode bookingId;
+        try {
+            bookingId = json.readTree(created.body()).get("id");
+        } catch (IOException e) {
+            bookingId = null;
+        }
+        if (bookingId == null) {
+            // подтверждать нечего: запрос не отправлялся, поэтому в отчете это ошибка без времени ответа
+            if (measured) {
+                recorder.error("PATCH /bookings/{id}", 0);
+            }
+            return;
+        }
+
+        call("PATCH /bookings/{id}", request("/bookings/" + bookingId.asLong() + "?approved=true")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()), itemOwners[item], measured);
+    }
+
+    // null - ответа нет; такой запрос учитывается как неуспешный
+    private HttpResponse<String> call(String endpoint, HttpRequest.Builder request, long userId, boolean measured) {
+        long started = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = http.send(request.header(USER_ID_HEADER, String.valueOf(userId)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // соединение оборвалось - в отчете это ответ со статусом 0
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (measured) {
+            recorder.record(endpoint, response != null ? response.statusCode() : 0, System.nanoTime() - started);
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header("Content-Type", "application/json");
+    }
+
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextLong(users);
+    }
+}
@@ -4,42 +4,56 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecision;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.UpstreamGuards;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         WebClient.Builder webClientBuilder, HttpClientProperties properties,
+                         UpstreamGuards guards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                properties.isReactive()
+                        ? webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build()
+                        : null,
+                guards.forClient("bookings")
         );
     }
 
-    public ResponseEntity<Object> getCurrentUserBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getCurrentUserBookings(long userId, Set<BookingState> states, int limit, String after) {
+        return get(pageQuery(after), userId, pageParameters(states, limit, after));
     }
 
 
-    public ResponseEntity<Object> createBooking(long userId, CreateBookingRequest requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, CreateBookingRequest requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, boolean approved, long userId) {
+    public Mono<ResponseEntity<Object>> createBookings(long userId, List<CreateBookingRequest> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(long bookingId, boolean approved, long userId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved,
                 "bookingId", bookingId
@@ -47,15 +61,31 @@ public class BookingClient extends BaseClient {
         return patch("/{bookingId}?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingInfo(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> decideBookings(long userId, List<BookingDecision> decisions) {
+        return patch("/owner/decisions", userId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingInfo(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long userId, Set<BookingState> states, int limit, String after) {
+        return get("/owner" + pageQuery(after), userId, pageParameters(states, limit, after));
+    }
+
+    private static String pageQuery(String after) {
+        return after == null ? "?state={state}&limit={limit}" : "?state={state}&limit={limit}&after={after}";
+    }
 
-        return get("/owner?state={state}", userId, parameters);
+    private static Map<String, Object> pageParameters(Set<BookingState> states, int limit, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", states.stream()
+                .map(BookingState::name)
+                .collect(Collectors.joining(",")));
+        parameters.put("limit", limit);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 }
@@ -1,15 +1,23 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecision;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 
+import java.util.List;
+import java.util.Set;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -17,17 +25,29 @@ import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final String DEFAULT_PAGE_SIZE = "100";
+	private static final long MAX_PAGE_SIZE = 1000;
+	// пачка расходует один токен лимита на изменение бронирований, поэтому она меньше, чем на сервере
+	private static final int MAX_BATCH_SIZE = 100;
+
 	private final BookingClient bookingClient;
 
 	@PostMapping
-	public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestBody @Valid CreateBookingRequest requestDto) {
 		log.info("Create booking {}, userId={}", requestDto, userId);
 		return bookingClient.createBooking(userId, requestDto);
 	}
 
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid CreateBookingRequest> requestDtos) {
+		log.info("Create {} booking(s), userId={}", requestDtos.size(), userId);
+		return bookingClient.createBookings(userId, requestDtos);
+	}
+
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> approveBooking(@PathVariable Long bookingId,
+	public Mono<ResponseEntity<Object>> approveBooking(@PathVariable Long bookingId,
 												 @RequestParam Boolean approved,
 												 @RequestHeader("X-Sharer-User-Id") Long userId) {
 
@@ -35,33 +55,44 @@ public class BookingController {
 		return bookingClient.approveBooking(bookingId, approved, userId);
 	}
 
+	@PatchMapping("/owner/decisions")
+	public Mono<ResponseEntity<Object>> decideBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid BookingDecision> decisions) {
+		log.info("Decide {} booking(s), userId={}", decisions.size(), userId);
+		return bookingClient.decideBookings(userId, decisions);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBookingInfo(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> getBookingInfo(@RequestHeader("X-Sharer-User-Id") long userId,
 			@PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBookingInfo(userId, bookingId);
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getCurrentUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-														 @RequestParam(name = "state", defaultValue = "ALL") String stateParam) {
+	public Mono<ResponseEntity<Object>> getCurrentUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+														 @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+														 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) Integer limit,
+														 @RequestParam(required = false) String after) {
 
-		BookingState state = BookingState.from(stateParam)
+		Set<BookingState> states = BookingState.fromList(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-		log.info("Get booking with state {}, userId={}", stateParam, userId);
-		return bookingClient.getCurrentUserBookings(userId, state);
+		log.info("Get booking with state {}, userId={}, limit={}, after={}", stateParam, userId, limit, after);
+		return bookingClient.getCurrentUserBookings(userId, states, limit, after);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+	public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+														 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) Integer limit,
+														 @RequestParam(required = false) String after,
 														 @RequestHeader("X-Sharer-User-Id") Long userId) {
 
-		BookingState state = BookingState.from(stateParam)
+		Set<BookingState> states = BookingState.fromList(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-		log.info("Get owner bookings with state {}, userId={}", stateParam, userId);
+		log.info("Get owner bookings with state {}, userId={}, limit={}, after={}", stateParam, userId, limit, after);
 
-		return bookingClient.getOwnerBookings(userId, state);
+		return bookingClient.getOwnerBookings(userId, states, limit, after);
 	}
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.dto;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public enum BookingState {
 	// Все
@@ -24,4 +26,17 @@ public enum BookingState {
 		}
 		return Optional.empty();
 	}
+
+	// состояния через запятую: временные и по статусу можно сочетать, например CURRENT,WAITING
+	public static Optional<Set<BookingState>> fromList(String stringStates) {
+		Set<BookingState> states = EnumSet.noneOf(BookingState.class);
+		for (String stringState : stringStates.split(",")) {
+			Optional<BookingState> state = from(stringState.strip());
+			if (state.isEmpty()) {
+				return Optional.empty();
+			}
+			states.add(state.get());
+		}
+		return Optional.of(states);
+	}
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений шлюза с сервером.
+ * Все запросы идут на один адрес, поэтому лимит на маршрут по умолчанию равен общему.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    // true - запросы идут через WebClient на event loop, false - через RestTemplate с блокировкой потока
+    private boolean reactive = false;
+
+    private int maxTotal = 100;
+
+    private int maxPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    // сколько запрос ждет свободное соединение из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    // сколько держать соединение, если сервер не прислал Keep-Alive
+    private Duration keepAlive = Duration.ofMinutes(1);
+
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
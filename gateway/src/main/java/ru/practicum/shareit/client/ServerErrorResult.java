@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Predicate;
+
+/**
+ * Ответы сервера с кодом 5xx приходят как обычный результат, а не исключение;
+ * для автомата они такие же ошибки, как обрыв соединения.
+ */
+public class ServerErrorResult implements Predicate<Object> {
+
+    @Override
+    public boolean test(Object result) {
+        return result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError();
+    }
+}
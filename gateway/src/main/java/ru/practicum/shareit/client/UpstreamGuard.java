@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Изоляция запросов одного клиента к серверу: ограничение числа одновременных запросов
+ * и автомат, который перестает отправлять запросы, пока сервер отвечает ошибками или медленно.
+ */
+public record UpstreamGuard(Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+
+    // отказ bulkhead не считается ошибкой сервера, поэтому он снаружи автомата
+    public <T> Mono<T> protect(Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Выдает клиентам их bulkhead и автомат по имени клиента.
+ * Настройки берутся из resilience4j.bulkhead.* и resilience4j.circuitbreaker.*.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamGuards {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public UpstreamGuard forClient(String name) {
+        return new UpstreamGuard(bulkheadRegistry.bulkhead(name), circuitBreakerRegistry.circuitBreaker(name));
+    }
+}
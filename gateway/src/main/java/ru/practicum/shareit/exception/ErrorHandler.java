@@ -0,0 +1,44 @@
+package ru.practicum.shareit.exception;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.stream.Collectors;
+
+@RestControllerAdvice
+public class ErrorHandler {
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleConstrainViolation(ConstraintViolationException e) {
+
+        String description = e.getConstraintViolations().stream()
+                .map(cv -> cv.getPropertyPath() + ": " + cv.getMessage())
+                .collect(Collectors.joining(", "));
+
+        return new ResponseEntity<>(new ErrorResponse("ошибка валидации", description),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    // Retry-After задается в целых секундах, поэтому округляется вверх
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("слишком много запросов", e.getMessage()));
+    }
+
+    // сервер перегружен или отвечает ошибками: запрос отклонен шлюзом, не дойдя до сервера
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(RuntimeException e) {
+        return new ResponseEntity<>(new ErrorResponse("сервер недоступен", e.getMessage()),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
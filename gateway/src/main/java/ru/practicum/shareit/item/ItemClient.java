@@ -4,14 +4,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.item.dto.CreateCommentRequest;
 import ru.practicum.shareit.item.dto.CreateItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,45 +23,54 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      WebClient.Builder webClientBuilder, HttpClientProperties properties,
+                      UpstreamGuards guards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                properties.isReactive()
+                        ? webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build()
+                        : null,
+                guards.forClient("items")
         );
     }
 
-    public ResponseEntity<Object> createItem(long userId, CreateItemRequest requestDto) {
+    public Mono<ResponseEntity<Object>> createItem(long userId, CreateItemRequest requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, long userId, UpdateItemRequest requestDto) {
+    public Mono<ResponseEntity<Object>> createItems(long userId, List<CreateItemRequest> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long itemId, long userId, UpdateItemRequest requestDto) {
         Map<String, Object> parameters = Map.of(
             "itemId", itemId
         );
         return patch("/{itemId}", userId, parameters, requestDto);
     }
 
-    public ResponseEntity<Object> getById(long itemId) {
+    public Mono<ResponseEntity<Object>> getById(long itemId) {
         Map<String, Object> parameters = Map.of(
             "itemId", itemId
         );
         return get("/{itemId}", null, parameters);
     }
 
-    public ResponseEntity<Object> getByUserId(long userId) {
+    public Mono<ResponseEntity<Object>> getByUserId(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> search(String text) {
+    public Mono<ResponseEntity<Object>> search(String text) {
         Map<String, Object> parameters = Map.of(
             "text", text
         );
         return get("/search?text={text}", null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long itemId, long userId, CreateCommentRequest requestDto) {
+    public Mono<ResponseEntity<Object>> createComment(long itemId, long userId, CreateCommentRequest requestDto) {
         Map<String, Object> parameters = Map.of(
             "itemId", itemId
         );
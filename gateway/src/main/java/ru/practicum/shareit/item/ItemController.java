@@ -1,15 +1,19 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CreateCommentRequest;
 import ru.practicum.shareit.item.dto.CreateItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.util.List;
+
 @Slf4j
 @Validated
 @RestController
@@ -17,18 +21,29 @@ import ru.practicum.shareit.item.dto.UpdateItemRequest;
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Valid @RequestBody CreateItemRequest request,
+    public Mono<ResponseEntity<Object>> createItem(@Valid @RequestBody CreateItemRequest request,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
 
         log.info("Create item {}, userId={}", request, userId);
         return itemClient.createItem(userId, request);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createItems(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid CreateItemRequest> requests,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+
+        log.info("Create {} item(s), userId={}", requests.size(), userId);
+        return itemClient.createItems(userId, requests);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @Valid @RequestBody UpdateItemRequest request,
             @PathVariable Long itemId,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -38,25 +53,25 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long itemId) {
         log.info("Get item {}", itemId);
         return itemClient.getById(itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get items, userId={}", userId);
         return itemClient.getByUserId(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam("text") String searchString) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam("text") String searchString) {
         log.info("Search items, text={}", searchString);
         return itemClient.search(searchString);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@Valid @RequestBody CreateCommentRequest request,
+    public Mono<ResponseEntity<Object>> createComment(@Valid @RequestBody CreateCommentRequest request,
                                                 @PathVariable Long itemId,
                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
 
@@ -4,10 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.itemRequest.dto.CreateItemRequestRequest;
 
 import java.util.Map;
@@ -17,28 +20,33 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             WebClient.Builder webClientBuilder, HttpClientProperties properties,
+                             UpstreamGuards guards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                properties.isReactive()
+                        ? webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build()
+                        : null,
+                guards.forClient("requests")
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(long userId, CreateItemRequestRequest requestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(long userId, CreateItemRequestRequest requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequestsFromOthers(long userId) {
+    public Mono<ResponseEntity<Object>> getAllRequestsFromOthers(long userId) {
         return get("/all", userId);
     }
 
-    public ResponseEntity<Object> getRequest(long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(long requestId) {
         Map<String, Object> parameters = Map.of(
                 "requestId", requestId
         );
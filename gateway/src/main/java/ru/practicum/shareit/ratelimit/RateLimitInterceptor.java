@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.time.Duration;
+
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // ответ из Mono приходит повторным проходом того же запроса, он уже был допущен
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        RouteGroup group = RouteGroup.of(request.getMethod(), request.getRequestURI());
+        if (group == null) {
+            return true;
+        }
+
+        // без пользователя (например, поиск) запросы считаются по адресу клиента
+        String userId = request.getHeader(USER_ID_HEADER);
+        String clientId = userId != null ? userId : request.getRemoteAddr();
+
+        Duration retryAfter = rateLimiter.tryAcquire(clientId, group);
+        if (!retryAfter.isZero()) {
+            throw new TooManyRequestsException(retryAfter, "превышен лимит запросов %s для %s", group, clientId);
+        }
+        return true;
+    }
+}
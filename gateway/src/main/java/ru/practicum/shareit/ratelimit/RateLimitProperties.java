@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Лимиты запросов одного пользователя по группам запросов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limit bookingWrites = new Limit(10, 1);
+
+    private Limit searches = new Limit(20, 5);
+
+    private Limit reads = new Limit(100, 50);
+
+    public Limit get(RouteGroup group) {
+        return switch (group) {
+            case BOOKING_WRITES -> bookingWrites;
+            case SEARCHES -> searches;
+            case READS -> reads;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        // сколько запросов можно сделать подряд
+        private int capacity;
+
+        // сколько запросов в секунду добавляется после этого
+        private double refillPerSecond;
+    }
+}
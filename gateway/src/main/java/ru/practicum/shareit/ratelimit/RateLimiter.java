@@ -0,0 +1,91 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Корзины токенов по пользователям и группам запросов.
+ */
+public class RateLimiter {
+
+    private static final String METRIC_PREFIX = "gateway.rate-limit";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<RouteGroup, Counter> allowed = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejected = new EnumMap<>(RouteGroup.class);
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        // корзина, которую не трогали дольше времени заполнения, снова полна - ее можно забыть
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(maxFillTime(properties))
+                .build();
+
+        for (RouteGroup group : RouteGroup.values()) {
+            allowed.put(group, requests(meterRegistry, group, "allowed"));
+            rejected.put(group, requests(meterRegistry, group, "rejected"));
+        }
+        Gauge.builder(METRIC_PREFIX + ".buckets", buckets, Cache::estimatedSize)
+                .description("Number of active token buckets")
+                .register(meterRegistry);
+    }
+
+    // Duration.ZERO - запрос допущен, иначе через сколько можно повторить
+    public Duration tryAcquire(String clientId, RouteGroup group) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(new BucketKey(clientId, group), key -> newBucket(group, now));
+        long waitNanos = bucket.tryConsume(now);
+
+        if (waitNanos == 0) {
+            allowed.get(group).increment();
+            return Duration.ZERO;
+        }
+        rejected.get(group).increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private TokenBucket newBucket(RouteGroup group, long now) {
+        RateLimitProperties.Limit limit = properties.get(group);
+        return new TokenBucket(limit.getCapacity(), nanosPerToken(limit), now);
+    }
+
+    private static long nanosPerToken(RateLimitProperties.Limit limit) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+    }
+
+    private static Duration maxFillTime(RateLimitProperties properties) {
+        return Arrays.stream(RouteGroup.values())
+                .map(properties::get)
+                .map(limit -> Duration.ofNanos(limit.getCapacity() * nanosPerToken(limit)))
+                .max(Duration::compareTo)
+                .orElseThrow();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, RouteGroup group, String outcome) {
+        return Counter.builder(METRIC_PREFIX + ".requests")
+                .description("Requests checked by the gateway rate limiter")
+                .tag("group", group.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record BucketKey(String clientId, RouteGroup group) {
+    }
+}
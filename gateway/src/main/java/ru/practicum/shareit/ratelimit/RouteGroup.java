@@ -0,0 +1,23 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+/**
+ * Группы запросов, у каждой свой лимит.
+ */
+public enum RouteGroup {
+    BOOKING_WRITES,
+    SEARCHES,
+    READS;
+
+    // остальные изменения (вещи, запросы, пользователи) не ограничиваются
+    @Nullable
+    public static RouteGroup of(String method, String path) {
+        boolean read = HttpMethod.GET.matches(method);
+        if (!read) {
+            return path.startsWith("/bookings") ? BOOKING_WRITES : null;
+        }
+        return path.startsWith("/items/search") ? SEARCHES : READS;
+    }
+}
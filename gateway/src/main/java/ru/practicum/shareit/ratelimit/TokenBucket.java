@@ -0,0 +1,34 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок. Вместо числа токенов хранится момент, когда корзина была пуста:
+ * за каждые nanosPerToken после него в корзине появляется токен, но не больше capacity.
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long fullNanos;
+    private final AtomicLong emptyAt;
+
+    TokenBucket(int capacity, long nanosPerToken, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.fullNanos = capacity * nanosPerToken;
+        this.emptyAt = new AtomicLong(now - fullNanos);
+    }
+
+    // 0 - токен взят, иначе через сколько наносекунд он появится
+    long tryConsume(long now) {
+        while (true) {
+            long current = emptyAt.get();
+            long next = Math.max(current, now - fullNanos) + nanosPerToken;
+            if (next > now) {
+                return next - now;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.CreateUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 
@@ -19,25 +20,25 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody CreateUserRequest request) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody CreateUserRequest request) {
         log.info("Create user {}", request);
         return userClient.createUser(request);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@Valid @RequestBody UpdateUserRequest request, @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(@Valid @RequestBody UpdateUserRequest request, @PathVariable Long userId) {
         log.info("Update user {}", request);
         return userClient.updateUser(userId, request);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("Get user {}", userId);
         return userClient.getUserById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable Long userId) {
         log.info("Delete user {}", userId);
         return userClient.deleteUserById(userId);
     }
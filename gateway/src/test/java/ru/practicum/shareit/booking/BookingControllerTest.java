@@ -13,17 +13,26 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Slf4j
@@ -123,9 +132,9 @@ class BookingControllerTest {
 
             Mockito
                     .when(bookingClient.createBooking(any(Long.class), any(CreateBookingRequest.class)))
-                    .thenReturn(response);
+                    .thenReturn(Mono.just(response));
 
-            mvc.perform(post("/bookings")
+            performAsync(post("/bookings")
                             .content(mapper.writeValueAsString(request))
                             .contentType(MediaType.APPLICATION_JSON)
                             .accept(MediaType.APPLICATION_JSON)
@@ -142,11 +151,95 @@ class BookingControllerTest {
     void getBookingInfo() {
     }
 
-    @Test
-    void getCurrentUserBookings() {
+    @Nested
+    class GetCurrentUserBookings {
+
+        @Test
+        void givenNoPageParams_whenGet_gotDefaultLimit() throws Exception {
+
+            Mockito
+                    .when(bookingClient.getCurrentUserBookings(1L, Set.of(BookingState.ALL), 100, null))
+                    .thenReturn(Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+
+            performAsync(get("/bookings")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void givenCursor_whenGet_gotCursorPassedToServer() throws Exception {
+
+            Mockito
+                    .when(bookingClient.getCurrentUserBookings(1L, Set.of(BookingState.WAITING), 10, "abc"))
+                    .thenReturn(Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+
+            performAsync(get("/bookings?state=WAITING&limit=10&after=abc")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void givenCombinedStates_whenGet_gotAllStatesPassedToServer() throws Exception {
+
+            Mockito
+                    .when(bookingClient.getCurrentUserBookings(1L, Set.of(BookingState.CURRENT, BookingState.WAITING), 100, null))
+                    .thenReturn(Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+
+            performAsync(get("/bookings?state=current,WAITING")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void givenZeroLimit_whenGet_gotBadRequest() throws Exception {
+            mvc.perform(get("/bookings?limit=0")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void givenTooLargeLimit_whenGet_gotBadRequest() throws Exception {
+            mvc.perform(get("/bookings?limit=1001")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
-    @Test
-    void getOwnerBookings() {
+    @Nested
+    class GetOwnerBookings {
+
+        @Test
+        void givenNoPageParams_whenGet_gotDefaultLimit() throws Exception {
+
+            Mockito
+                    .when(bookingClient.getOwnerBookings(1L, Set.of(BookingState.ALL), 100, null))
+                    .thenReturn(Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+
+            performAsync(get("/bookings/owner")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void givenTooLargeLimit_whenGet_gotBadRequest() throws Exception {
+            mvc.perform(get("/bookings/owner?limit=1001")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ответ клиента приходит как Mono, поэтому статус появляется только после асинхронной обработки
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
     }
-}
\ No newline at end of file
+}
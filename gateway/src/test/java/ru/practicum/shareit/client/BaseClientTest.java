@@ -0,0 +1,224 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String BOOKINGS = "[{\"id\":1,\"status\":\"WAITING\"}]";
+
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setup() {
+        rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    void givenSuccessfulResponse_whenGet_gotSameBytesAndHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "abc");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.expect(requestTo("/bookings"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(BOOKINGS, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/bookings", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BOOKINGS.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        server.verify();
+    }
+
+    @Test
+    void givenErrorResponse_whenGet_gotSameStatusAndBody() {
+        String error = "{\"error\":\"не найдено бронирование с id = 1\"}";
+        server.expect(requestTo("/bookings/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<Object> response = client.get("/bookings/1", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void givenReactiveClient_whenGet_gotSameBytesAndHeaders() {
+        BaseClient reactiveClient = new BaseClient(new RestTemplate(), WebClient.builder()
+                .exchangeFunction(request -> {
+                    assertEquals("/bookings?state=ALL", request.url().toString());
+                    assertEquals("1", request.headers().getFirst("X-Sharer-User-Id"));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header("X-Next-Cursor", "abc")
+                            .body(BOOKINGS)
+                            .build());
+                })
+                .build());
+
+        ResponseEntity<Object> response = reactiveClient.get("/bookings?state={state}", 1L, Map.of("state", "ALL"))
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BOOKINGS.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void givenReactiveClientAndErrorResponse_whenGet_gotSameStatusAndBody() {
+        String error = "{\"error\":\"не найдено бронирование с id = 1\"}";
+        BaseClient reactiveClient = new BaseClient(new RestTemplate(), WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(error)
+                        .build()))
+                .build());
+
+        ResponseEntity<Object> response = reactiveClient.get("/bookings/1", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void givenConcurrentIdenticalGets_whenGet_gotOneServerCall() {
+        AtomicInteger serverCalls = new AtomicInteger();
+        BaseClient reactiveClient = new BaseClient(new RestTemplate(), WebClient.builder()
+                .exchangeFunction(request -> {
+                    serverCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).body(BOOKINGS).build())
+                            .delayElement(Duration.ofMillis(200));
+                })
+                .build());
+
+        List<ResponseEntity<Object>> responses = Flux.merge(
+                        reactiveClient.get("/items/{itemId}", 1L, Map.of("itemId", 5L)),
+                        reactiveClient.get("/items/{itemId}", 1L, Map.of("itemId", 5L)),
+                        reactiveClient.get("/items/{itemId}", 2L, Map.of("itemId", 5L)),
+                        reactiveClient.get("/items/{itemId}", 1L, Map.of("itemId", 6L)))
+                .collectList()
+                .block();
+
+        assertEquals(4, responses.size());
+        // разные пользователи и разные вещи - отдельные запросы, одинаковые объединены
+        assertEquals(3, serverCalls.get());
+
+        reactiveClient.get("/items/{itemId}", 1L, Map.of("itemId", 5L)).block();
+        assertEquals(4, serverCalls.get());
+    }
+
+    @Test
+    void givenCachedResponseWithETag_whenServerRespondsNotModified_gotCachedBody() {
+        String item = "{\"id\":5,\"name\":\"item\"}";
+        server.expect(requestTo("/items/5"))
+                .andRespond(withSuccess(item, MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"3\""));
+        server.expect(requestTo("/items/5"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"3\""));
+
+        client.get("/items/5", 1L).block();
+        ResponseEntity<Object> response = client.get("/items/5", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(item.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        server.verify();
+    }
+
+    @Test
+    void givenResponseWithoutETag_whenGetAgain_gotNoRevalidation() {
+        server.expect(requestTo("/bookings"))
+                .andRespond(withSuccess(BOOKINGS, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("/bookings"))
+                .andExpect(request -> assertFalse(request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)))
+                .andRespond(withSuccess(BOOKINGS, MediaType.APPLICATION_JSON));
+
+        client.get("/bookings", 1L).block();
+        client.get("/bookings", 1L).block();
+
+        server.verify();
+    }
+
+    @Test
+    void givenServerErrors_whenGet_gotCircuitOpenedAndServerNotCalled() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("bookings", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .recordResult(new ServerErrorResult())
+                .build());
+        BaseClient guardedClient = new BaseClient(rest, null,
+                new UpstreamGuard(Bulkhead.ofDefaults("bookings"), circuitBreaker));
+        server.expect(ExpectedCount.twice(), requestTo("/bookings"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, guardedClient.get("/bookings", 1L).block().getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, guardedClient.get("/bookings", 2L).block().getStatusCode());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> guardedClient.get("/bookings", 3L).block());
+        server.verify();
+    }
+
+    @Test
+    void givenBulkheadFull_whenGet_gotRejectedWithoutServerCall() {
+        AtomicInteger serverCalls = new AtomicInteger();
+        BaseClient guardedClient = new BaseClient(new RestTemplate(), WebClient.builder()
+                .exchangeFunction(request -> {
+                    serverCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).body(BOOKINGS).build())
+                            .delayElement(Duration.ofMillis(200));
+                })
+                .build(),
+                new UpstreamGuard(
+                        Bulkhead.of("bookings", BulkheadConfig.custom().maxConcurrentCalls(1).build()),
+                        CircuitBreaker.ofDefaults("bookings")));
+
+        Mono<ResponseEntity<Object>> slow = guardedClient.get("/bookings/owner", 1L);
+        Mono<ResponseEntity<Object>> other = guardedClient.get("/bookings", 1L);
+
+        assertThrows(BulkheadFullException.class, () -> Flux.merge(slow, other).blockLast());
+        assertEquals(1, serverCalls.get());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RestTemplateAutoConfiguration.class,
+                    MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class))
+            .withUserConfiguration(HttpClientConfig.class)
+            .withPropertyValues(
+                    "shareit-server.http-client.max-total=40",
+                    "shareit-server.http-client.max-per-route=20");
+
+    @Test
+    void givenPoolProperties_whenStartContext_gotConnectionManagerWithLimits() {
+        contextRunner.run(context -> {
+            PoolingHttpClientConnectionManager connectionManager =
+                    context.getBean(PoolingHttpClientConnectionManager.class);
+
+            assertEquals(40, connectionManager.getMaxTotal());
+            assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+        });
+    }
+
+    @Test
+    void givenRestTemplateBuilder_whenBuild_gotSharedRequestFactory() {
+        contextRunner.run(context -> {
+            RestTemplateBuilder builder = context.getBean(RestTemplateBuilder.class);
+
+            assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, builder.build().getRequestFactory());
+            assertSame(builder.build().getRequestFactory(), builder.build().getRequestFactory());
+        });
+    }
+
+    @Test
+    void givenMeterRegistry_whenStartContext_gotPoolMetrics() {
+        contextRunner.run(context -> {
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            assertEquals(40, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "shareit-server")
+                    .gauge()
+                    .value());
+            assertNotNull(meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge());
+            assertNotNull(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tag("state", "leased")
+                    .gauge());
+        });
+    }
+
+    @Test
+    void givenReactiveMode_whenStartContext_gotReactorConnectionPool() {
+        contextRunner
+                .withPropertyValues("shareit-server.http-client.reactive=true")
+                .run(context -> {
+                    assertEquals(40, context.getBean(ConnectionProvider.class).maxConnections());
+                    assertNotNull(context.getBean(WebClientCustomizer.class));
+                });
+    }
+
+    @Test
+    void givenBlockingMode_whenStartContext_gotNoReactorConnectionPool() {
+        contextRunner.run(context -> assertTrue(context.getBeansOfType(ConnectionProvider.class).isEmpty()));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitInterceptorTest {
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setup() {
+        ItemClient itemClient = Mockito.mock(ItemClient.class);
+        Mockito
+                .when(itemClient.search("drill"))
+                .thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setSearches(new RateLimitProperties.Limit(2, 0.5));
+
+        mvc = MockMvcBuilders.standaloneSetup(new ItemController(itemClient))
+                .setControllerAdvice(new ErrorHandler())
+                .addInterceptors(new RateLimitInterceptor(new RateLimiter(properties, new SimpleMeterRegistry())))
+                .build();
+    }
+
+    @Test
+    void givenLimitReached_whenSearch_gotTooManyRequestsWithRetryAfter() throws Exception {
+        // повторный проход асинхронного ответа не расходует второй токен
+        search();
+        search();
+
+        mvc.perform(get("/items/search?text=drill").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error", equalTo("слишком много запросов")));
+
+        search(2);
+    }
+
+    private void search() throws Exception {
+        search(1);
+    }
+
+    private void search(long userId) throws Exception {
+        MvcResult result = mvc.perform(get("/items/search?text=drill").header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+}
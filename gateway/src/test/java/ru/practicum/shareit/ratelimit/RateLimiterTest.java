@@ -0,0 +1,84 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBookingWrites(new RateLimitProperties.Limit(2, 1));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(properties, meterRegistry, now::get);
+    }
+
+    @Test
+    void givenFullBucket_whenAcquireOverCapacity_gotRetryAfterOneToken() {
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+
+        assertEquals(Duration.ofSeconds(1), rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+    }
+
+    @Test
+    void givenEmptyBucket_whenTimePasses_gotTokensRefilledUpToCapacity() {
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+
+        now.addAndGet(Duration.ofMillis(400).toNanos());
+        assertEquals(Duration.ofMillis(600), rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES));
+        assertFalse(rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES).isZero());
+    }
+
+    @Test
+    void givenEmptyBucket_whenOtherUserOrGroup_gotOwnBucket() {
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("2", RouteGroup.BOOKING_WRITES));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire("1", RouteGroup.READS));
+    }
+
+    @Test
+    void givenRejectedRequest_whenAcquire_gotCountedByOutcome() {
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+        rateLimiter.tryAcquire("1", RouteGroup.BOOKING_WRITES);
+
+        assertEquals(2, count("booking_writes", "allowed"));
+        assertEquals(1, count("booking_writes", "rejected"));
+    }
+
+    @Test
+    void givenRequests_whenGetRouteGroup_gotGroupByMethodAndPath() {
+        assertEquals(RouteGroup.BOOKING_WRITES, RouteGroup.of("POST", "/bookings"));
+        assertEquals(RouteGroup.BOOKING_WRITES, RouteGroup.of("PATCH", "/bookings/1"));
+        assertEquals(RouteGroup.SEARCHES, RouteGroup.of("GET", "/items/search"));
+        assertEquals(RouteGroup.READS, RouteGroup.of("GET", "/bookings/owner"));
+        assertNull(RouteGroup.of("POST", "/items"));
+    }
+
+    private double count(String group, String outcome) {
+        return meterRegistry.get("gateway.rate-limit.requests")
+                .tag("group", group)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
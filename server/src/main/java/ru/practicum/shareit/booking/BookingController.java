@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,6 +11,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 
@@ -21,6 +26,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final long MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingMapper mapper;
     private final BookingService bookingService;
 
@@ -32,6 +43,15 @@ public class BookingController {
         return new ResponseEntity<>(mapper.toDto(booking), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingDto>> createBookings(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid CreateBookingRequest> requests,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+
+        List<Booking> bookings = bookingService.createBookings(requests, userId);
+        return new ResponseEntity<>(mapper.toDto(bookings), HttpStatus.CREATED);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> approveBooking(@PathVariable Long bookingId,
                                                      @RequestParam Boolean approved,
@@ -41,6 +61,14 @@ public class BookingController {
         return new ResponseEntity<>(mapper.toDto(booking), HttpStatus.OK);
     }
 
+    @PatchMapping("/owner/decisions")
+    public ResponseEntity<List<BookingDecisionResult>> decideBookings(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid BookingDecision> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+
+        return ResponseEntity.ok(bookingService.decideBookings(decisions, userId));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDto> getBookingInfo(@PathVariable Long bookingId,
                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -52,23 +80,35 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<List<BookingDto>> getCurrentUserBookings(@RequestParam(required = false, defaultValue = "ALL") String state,
                                                                    @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now()}", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime now,
+                                                                   @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) Integer limit,
+                                                                   @RequestParam(required = false) String after,
                                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
 
-        log.info("getting current user {} bookings with state {} at {}", userId, state, now);
+        log.debug("getting current user {} bookings with state {} at {}", userId, state, now);
 
-        List<Booking> bookings = bookingService.getCurrentUserBookings(state, userId, now);
-        return new ResponseEntity<>(mapper.toDto(bookings), HttpStatus.OK);
+        BookingPage page = bookingService.getCurrentUserBookings(state, userId, now, limit, after);
+        return toResponse(page);
 
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestParam(required = false, defaultValue = "ALL") String state,
                                                              @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now()}", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime now,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) Integer limit,
+                                                             @RequestParam(required = false) String after,
                                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
 
-        log.info("getting owner {} bookings with state {} at {}", userId, state, now);
+        log.debug("getting owner {} bookings with state {} at {}", userId, state, now);
+
+        BookingPage page = bookingService.getOwnerBookings(state, userId, now, limit, after);
+        return toResponse(page);
+    }
 
-        List<Booking> bookings = bookingService.getOwnerBookings(state, userId, now);
-        return new ResponseEntity<>(mapper.toDto(bookings), HttpStatus.OK);
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(mapper.toDto(page.getBookings()));
     }
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Условия выборки списка бронирований. Временные состояния объединяются через ИЛИ,
+ * состояния по статусу - тоже через ИЛИ, а обе группы - через И:
+ * {@code CURRENT,WAITING} - текущие бронирования, ожидающие подтверждения.
+ * Состояние {@code ALL} снимает ограничения по состояниям.
+ */
+@Getter
+@Builder
+@ToString
+@EqualsAndHashCode
+public class BookingFilter {
+
+    private final BookingRole role;
+
+    private final long userId;
+
+    @Builder.Default
+    private final Set<FilterBookingState> states = EnumSet.of(FilterBookingState.ALL);
+
+    // момент, относительно которого определяются временные состояния
+    private final LocalDateTime now;
+
+    public Set<FilterBookingState> getTimeStates() {
+        if (states.contains(FilterBookingState.ALL)) {
+            return EnumSet.noneOf(FilterBookingState.class);
+        }
+        return states.stream()
+                .filter(FilterBookingState::isTimeState)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(FilterBookingState.class)));
+    }
+
+    public Set<BookingStatus> getStatuses() {
+        if (states.contains(FilterBookingState.ALL)) {
+            return EnumSet.noneOf(BookingStatus.class);
+        }
+        return states.stream()
+                .filter(FilterBookingState::isStatusState)
+                .map(FilterBookingState::toStatus)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(BookingStatus.class)));
+    }
+}
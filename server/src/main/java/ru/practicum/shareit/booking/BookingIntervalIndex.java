@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Индекс интервалов активных (ожидающих и подтвержденных) бронирований по вещам.
+ * Интервалы одной вещи не пересекаются, поэтому для проверки пересечения достаточно
+ * найти интервал с ближайшим началом слева. У каждой вещи своя блокировка, которая существует,
+ * пока ее кто-то держит или ждет, поэтому операции над разными вещами не конкурируют.
+ * Блокировки действуют в пределах одного процесса: два экземпляра сервера по-прежнему
+ * могут забронировать одну вещь на пересекающиеся периоды.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final int WARM_BATCH_SIZE = 1000;
+
+    private final BookingRepository repo;
+
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+    private final Map<Long, ItemLock> locks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warm() {
+        log.info("warming booking interval index");
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int count = 0;
+        List<BookingInterval> batch;
+        do {
+            batch = repo.findIntervals(ACTIVE_STATUSES, now, afterId, Limit.of(WARM_BATCH_SIZE));
+            for (BookingInterval interval : batch) {
+                add(interval.getItemId(), interval.getId(), interval.getStart(), interval.getEnd());
+                afterId = interval.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == WARM_BATCH_SIZE);
+
+        log.info("booking interval index is warmed, {} booking(s) indexed", count);
+    }
+
+    /**
+     * Выполняет действие под блокировкой вещи: проверка пересечения и сохранение бронирования
+     * должны происходить атомарно относительно других бронирований той же вещи.
+     */
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        ItemLock lock = acquire(itemId);
+        try {
+            return action.get();
+        } finally {
+            release(itemId, lock);
+        }
+    }
+
+    /**
+     * Выполняет действие под блокировками всех перечисленных вещей. Блокировки захватываются
+     * по возрастанию идентификатора вещи, поэтому пачки с общими вещами не ждут друг друга бесконечно.
+     */
+    public <T> T withItemsLock(Collection<Long> itemIds, Supplier<T> action) {
+        long[] sortedIds = itemIds.stream()
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        ItemLock[] acquired = new ItemLock[sortedIds.length];
+        try {
+            for (int i = 0; i < sortedIds.length; i++) {
+                acquired[i] = acquire(sortedIds[i]);
+            }
+            return action.get();
+        } finally {
+            for (int i = sortedIds.length - 1; i >= 0; i--) {
+                if (acquired[i] != null) {
+                    release(sortedIds[i], acquired[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет, пересекается ли полуинтервал [start, end) с активными бронированиями вещи.
+     */
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        return withItemLock(itemId, () -> {
+            ItemIntervals intervals = intervalsByItem.get(itemId);
+            return intervals != null && intervals.overlaps(start, end);
+        });
+    }
+
+    public void add(Booking booking) {
+        add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    public void add(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        withItemLock(itemId, () -> intervalsByItem
+                .computeIfAbsent(itemId, id -> new ItemIntervals())
+                .add(new Interval(bookingId, start, end)));
+    }
+
+    public void remove(long itemId, long bookingId) {
+        withItemLock(itemId, () -> {
+            ItemIntervals intervals = intervalsByItem.get(itemId);
+            if (intervals != null) {
+                intervals.remove(bookingId);
+            }
+            return null;
+        });
+    }
+
+    // число вещей, чьи блокировки сейчас держат или ждут
+    int lockedItems() {
+        return locks.size();
+    }
+
+    private ItemLock acquire(long itemId) {
+        ItemLock lock = locks.compute(itemId, (id, current) -> {
+            ItemLock itemLock = current == null ? new ItemLock() : current;
+            itemLock.holders++;
+            return itemLock;
+        });
+        lock.lock.lock();
+        return lock;
+    }
+
+    // последний освободивший удаляет блокировку, чтобы карта не росла с числом вещей
+    private void release(long itemId, ItemLock lock) {
+        lock.lock.unlock();
+        locks.computeIfPresent(itemId, (id, current) -> --current.holders == 0 ? null : current);
+    }
+
+    private static class ItemLock {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // меняется только внутри compute карты блокировок
+        private int holders;
+    }
+
+    private record Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+
+        static final Comparator<Interval> BY_START = Comparator
+                .comparing(Interval::start)
+                .thenComparingLong(Interval::bookingId);
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+    }
+
+    private static class ItemIntervals {
+
+        private final NavigableSet<Interval> byStart = new TreeSet<>(Interval.BY_START);
+        private final Map<Long, Interval> byBookingId = new HashMap<>();
+
+        // бронирования, созданные до появления проверки, могут пересекаться между собой
+        private boolean containsOverlaps;
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Interval probe = new Interval(Long.MIN_VALUE, end, end);
+
+            if (containsOverlaps) {
+                return byStart.headSet(probe, false).stream()
+                        .anyMatch(interval -> interval.overlaps(start, end));
+            }
+
+            Interval closest = byStart.lower(probe);
+            return closest != null && closest.overlaps(start, end);
+        }
+
+        Interval add(Interval interval) {
+            Interval current = byBookingId.get(interval.bookingId());
+            if (interval.equals(current)) {
+                return current;
+            }
+            if (current != null) {
+                remove(current.bookingId());
+            }
+
+            pruneFinished();
+
+            if (overlaps(interval.start(), interval.end())) {
+                containsOverlaps = true;
+            }
+
+            byStart.add(interval);
+            byBookingId.put(interval.bookingId(), interval);
+            return interval;
+        }
+
+        void remove(long bookingId) {
+            Interval interval = byBookingId.remove(bookingId);
+            if (interval != null) {
+                byStart.remove(interval);
+            }
+            if (byStart.isEmpty()) {
+                containsOverlaps = false;
+            }
+        }
+
+        private void pruneFinished() {
+            LocalDateTime now = LocalDateTime.now();
+            while (!byStart.isEmpty() && byStart.first().end().isBefore(now)) {
+                byBookingId.remove(byStart.pollFirst().bookingId());
+            }
+        }
+    }
+}
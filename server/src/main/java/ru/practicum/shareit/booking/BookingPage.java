@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookingPage {
+
+    private final List<Booking> bookings;
+
+    // null, если страница последняя
+    private final String nextCursor;
+
+    /**
+     * Собирает страницу из выборки, запрошенной с лимитом {@code limit + 1}:
+     * лишняя запись означает, что за страницей есть продолжение.
+     */
+    public static BookingPage of(List<Booking> bookings, int limit) {
+        if (bookings.size() <= limit) {
+            return new BookingPage(bookings, null);
+        }
+
+        List<Booking> page = bookings.subList(0, limit);
+        return new BookingPage(page, BookingCursor.after(page.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingRole {
+    // бронирования, сделанные пользователем
+    BOOKER,
+    // бронирования вещей пользователя
+    OWNER
+}
@@ -1,23 +1,39 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class BookingService {
 
@@ -25,39 +41,83 @@ public class BookingService {
     private final ItemService itemService;
     private final BookingRepository repo;
     private final BookingMapper mapper;
+    private final BookingIntervalIndex intervalIndex;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final TransactionTemplate tx;
 
     public Booking createBooking(CreateBookingRequest request, long userId) {
 
-        log.info("create booking {}", request);
+        log.debug("creating booking {}", request);
 
         User booker = userService.getById(userId);
         Item item = itemService.getById(request.getItemId());
+        Booking booking = toBooking(request, item, booker);
+
+        Booking createdBooking = intervalIndex.withItemLock(item.getId(), () -> {
+            checkNotBooked(booking);
+
+            // бронирование и даты вещи фиксируются вместе, в индекс попадает только зафиксированное
+            Booking savedBooking = tx.execute(status -> {
+                Booking saved = repo.save(booking);
+                bookingSummaryService.onBookingCreated(saved);
+                return saved;
+            });
+            intervalIndex.add(savedBooking);
+            return savedBooking;
+        });
+        log.info("created booking {} of item {} by user {}", createdBooking.getId(), item.getId(), userId);
 
-        if (request.getStart().isAfter(request.getEnd())) {
-            throw new BadRequestException("Начало бронирования не должно быть после его окончания");
-        }
-
-        if (request.getStart().isEqual(request.getEnd())) {
-            throw new BadRequestException("Начало бронирования не должно совпадать с его окончанием");
-        }
-
-        if (!item.isAvailable()) {
-            throw new BadRequestException("Вещь с id = %s недоступна для бронирования", item.getId());
-        }
+        return createdBooking;
+    }
 
-        Booking booking = mapper.toBooking(request);
-        booking.setBooker(booker);
-        booking.setItem(item);
+    /**
+     * Создает бронирования пачкой: все или ни одного. Вещи читаются одним запросом, бронирования
+     * проверяются на пересечение между собой и с уже существующими и сохраняются пакетными вставками
+     * под блокировкой всех вещей пачки.
+     */
+    public List<Booking> createBookings(List<CreateBookingRequest> requests, long userId) {
 
-        Booking createdBooking = repo.save(booking);
-        log.info("created booking {}", createdBooking);
+        log.debug("creating {} booking(s) by user {}", requests.size(), userId);
 
-        return createdBooking;
+        User booker = userService.getById(userId);
+        Map<Long, Item> items = itemService.getByIds(requests.stream()
+                .map(CreateBookingRequest::getItemId)
+                .collect(Collectors.toSet()));
+
+        List<Booking> bookings = requests.stream()
+                .map(request -> toBooking(request, items.get(request.getItemId()), booker))
+                .toList();
+        checkNoOverlapsWithin(bookings);
+
+        List<Booking> createdBookings = intervalIndex.withItemsLock(items.keySet(), () -> {
+            bookings.forEach(this::checkNotBooked);
+
+            // бронирования и даты вещей фиксируются вместе, а в индекс попадают только зафиксированные,
+            // причем до снятия блокировок
+            List<Booking> savedBookings = tx.execute(status -> {
+                List<Booking> saved = repo.saveAll(bookings);
+                bookingSummaryService.onBookingsCreated(saved);
+                return saved;
+            });
+            savedBookings.forEach(intervalIndex::add);
+            return savedBookings;
+        });
+        log.info("created {} booking(s) by user {}", createdBookings.size(), userId);
+
+        return createdBookings;
     }
 
+    /**
+     * Подтверждает или отклоняет ожидающее бронирование одним условным обновлением без предварительного
+     * чтения. Повтор того же решения ничего не меняет и возвращает бронирование, другое решение
+     * по уже решенному бронированию - {@link ConflictException}.
+     */
     public Booking approveBooking(Long bookingId, boolean approved, long userId) {
 
-        log.info("{} book {} with user {}", approved ? "approving" : "rejecting", bookingId, userId);
+        log.debug("{} book {} with user {}", approved ? "approving" : "rejecting", bookingId, userId);
+
+        BookingStatus target = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = repo.transition(bookingId, userId, target.sources(), target);
 
         Booking booking = findById(bookingId);
 
@@ -66,8 +126,73 @@ public class BookingService {
                     "Пользователю %s запрещено вносить изменения в бронирование %s", userId, bookingId);
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return repo.save(booking);
+        if (updated == 0) {
+            if (booking.getStatus() != target) {
+                throw new ConflictException("Бронирование %s нельзя перевести из статуса %s в %s",
+                        bookingId, booking.getStatus(), target);
+            }
+            return booking;
+        }
+
+        if (approved) {
+            intervalIndex.add(booking);
+        } else {
+            intervalIndex.remove(booking.getItem().getId(), booking.getId());
+        }
+        log.info("booking {} is {} by owner {}", bookingId, target, userId);
+
+        return booking;
+    }
+
+    /**
+     * Применяет решения владельца по его бронированиям одним обновлением. Бронирования, которых нет
+     * среди ожидающих решения бронирований вещей владельца, пропускаются и возвращаются как непримененные.
+     * Выбранные бронирования блокируются до обновления, поэтому одновременное решение их не изменит.
+     */
+    @Transactional
+    public List<BookingDecisionResult> decideBookings(List<BookingDecision> decisions, long userId) {
+
+        log.debug("deciding {} booking(s) by owner {}", decisions.size(), userId);
+
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        for (BookingDecision decision : decisions) {
+            if (approvedById.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new BadRequestException("Решение по бронированию %s передано дважды", decision.getBookingId());
+            }
+        }
+
+        User owner = userService.getById(userId);
+        // подтвердить и отклонить можно из одних и тех же статусов
+        List<BookingInterval> owned = repo.findIntervalsByIdsAndOwnerForUpdate(approvedById.keySet(),
+                BookingStatus.APPROVED.sources(), owner);
+
+        if (!owned.isEmpty()) {
+            List<Long> approvedIds = approvedById.entrySet().stream()
+                    .filter(Map.Entry::getValue)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            repo.decideByOwner(owned.stream().map(BookingInterval::getId).toList(), approvedIds, owner);
+        }
+
+        Map<Long, BookingStatus> statusById = new HashMap<>();
+        for (BookingInterval interval : owned) {
+            statusById.put(interval.getId(),
+                    approvedById.get(interval.getId()) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        }
+        // индекс меняется только после фиксации: при откате в нем не должно остаться отклоненных интервалов
+        AfterCommit.run(() -> owned.forEach(interval -> {
+            if (statusById.get(interval.getId()) == BookingStatus.APPROVED) {
+                intervalIndex.add(interval.getItemId(), interval.getId(), interval.getStart(), interval.getEnd());
+            } else {
+                intervalIndex.remove(interval.getItemId(), interval.getId());
+            }
+        }));
+        log.info("owner {} decided {} of {} booking(s)", userId, owned.size(), approvedById.size());
+
+        return approvedById.keySet().stream()
+                .map(bookingId -> new BookingDecisionResult(bookingId, statusById.containsKey(bookingId),
+                        statusById.get(bookingId)))
+                .toList();
     }
 
     public Booking getBookingByIdAndUser(Long bookingId, Long userId) {
@@ -84,46 +209,38 @@ public class BookingService {
         }
     }
 
-    public List<Booking> getCurrentUserBookings(String stateValue, Long userId, LocalDateTime now) {
+    @Transactional(readOnly = true)
+    public BookingPage getCurrentUserBookings(String stateValue, Long userId, LocalDateTime now,
+                                              int limit, String after) {
 
-        log.info("getting bookings for user {} with state {}", userId, stateValue);
+        log.debug("getting bookings for user {} with state {}, limit {} after {}", userId, stateValue, limit, after);
 
-        FilterBookingState state = FilterBookingState.valueOf(stateValue);
         User user = userService.getById(userId);
-
-        List<Booking> bookings = switch (state) {
-            case ALL -> repo.findAllByBookerOrderByStartAsc(user);
-            case CURRENT -> repo.findAllByBookerAndStartBeforeAndEndAfterOrderByStartAsc(user, now, now);
-            case PAST -> repo.findAllByBookerAndEndBeforeOrderByStartAsc(user, now);
-            case FUTURE -> repo.findAllByBookerAndStartAfterOrderByStartAsc(user, now);
-            case WAITING -> repo.findAllByBookerAndStatusOrderByStartAsc(user, BookingStatus.WAITING);
-            case REJECTED -> repo.findAllByBookerAndStatusOrderByStartAsc(user, BookingStatus.REJECTED);
-        };
-
-        log.info("found {} booking(s)", bookings.size());
-
-        return bookings;
+        BookingFilter filter = BookingFilter.builder()
+                .role(BookingRole.BOOKER)
+                .userId(user.getId())
+                .states(FilterBookingState.parse(stateValue))
+                .now(now)
+                .build();
+
+        return findPage(filter, limit, after);
     }
 
-    public List<Booking> getOwnerBookings(String stateValue, Long userId, LocalDateTime now) {
+    @Transactional(readOnly = true)
+    public BookingPage getOwnerBookings(String stateValue, Long userId, LocalDateTime now,
+                                        int limit, String after) {
 
-        log.info("getting bookings for owner {} with state {}", userId, stateValue);
+        log.debug("getting bookings for owner {} with state {}, limit {} after {}", userId, stateValue, limit, after);
 
-        FilterBookingState state = FilterBookingState.valueOf(stateValue);
         User owner = userService.getById(userId);
-
-        List<Booking> bookings = switch (state) {
-            case ALL -> repo.findAllByOwnerOrderByStartAsc(owner);
-            case CURRENT -> repo.findAllCurrentByOwnerOrderByStartAsc(owner, now);
-            case PAST -> repo.findAllPastByOwnerOrderByStartAsc(owner, now);
-            case FUTURE -> repo.findAllByOwnerOrderByStartAsc(owner, now);
-            case WAITING -> repo.findAllByOwnerAndStatusOrderByStartAsc(owner, BookingStatus.WAITING);
-            case REJECTED -> repo.findAllByOwnerAndStatusOrderByStartAsc(owner, BookingStatus.REJECTED);
-        };
-
-        log.info("found {} booking(s)", bookings.size());
-
-        return bookings;
+        BookingFilter filter = BookingFilter.builder()
+                .role(BookingRole.OWNER)
+                .userId(owner.getId())
+                .states(FilterBookingState.parse(stateValue))
+                .now(now)
+                .build();
+
+        return findPage(filter, limit, after);
     }
 
     public boolean existPastApprovedItemBookingByUser(Item item, User user, LocalDateTime now) {
@@ -134,4 +251,62 @@ public class BookingService {
         return repo.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("не найдено бронирование с id = %s", bookingId));
     }
+
+    private Booking toBooking(CreateBookingRequest request, Item item, User booker) {
+        if (request.getStart().isAfter(request.getEnd())) {
+            throw new BadRequestException("Начало бронирования не должно быть после его окончания");
+        }
+
+        if (request.getStart().isEqual(request.getEnd())) {
+            throw new BadRequestException("Начало бронирования не должно совпадать с его окончанием");
+        }
+
+        if (!item.isAvailable()) {
+            throw new BadRequestException("Вещь с id = %s недоступна для бронирования", item.getId());
+        }
+
+        Booking booking = mapper.toBooking(request);
+        booking.setBooker(booker);
+        booking.setItem(item);
+        return booking;
+    }
+
+    // вызывается под блокировкой вещи
+    private void checkNotBooked(Booking booking) {
+        long itemId = booking.getItem().getId();
+        if (intervalIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Вещь с id = %s уже забронирована на период с %s по %s",
+                    itemId, booking.getStart(), booking.getEnd());
+        }
+    }
+
+    // бронирования каждой вещи упорядочиваются по началу: пересечься может только соседнее
+    private static void checkNoOverlapsWithin(List<Booking> bookings) {
+        Map<Long, List<Booking>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        for (List<Booking> itemBookings : byItem.values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < itemBookings.size(); i++) {
+                Booking previous = itemBookings.get(i - 1);
+                Booking current = itemBookings.get(i);
+                if (current.getStart().isBefore(previous.getEnd())) {
+                    throw new ConflictException("Вещь с id = %s бронируется в пачке дважды: с %s по %s и с %s по %s",
+                            current.getItem().getId(), previous.getStart(), previous.getEnd(),
+                            current.getStart(), current.getEnd());
+                }
+            }
+        }
+    }
+
+    private BookingPage findPage(BookingFilter filter, int limit, String after) {
+        List<Booking> bookings = repo.findByFilter(filter, BookingCursor.decode(after), Limit.of(limit + 1));
+        log.debug("found {} booking(s)", bookings.size());
+
+        BookingPage page = BookingPage.of(bookings, limit);
+        itemService.fetchComments(page.getBookings().stream()
+                .map(Booking::getItem)
+                .toList());
+        return page;
+    }
 }
@@ -1,8 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum BookingStatus {
     WAITING, // новое бронирование, ожидает одобрения
     APPROVED, // бронирование подтверждено владельцем
     REJECTED, // бронирование отклонено владельцем
-    CANCELED // бронирование отменено создателем
+    CANCELED; // бронирование отменено создателем
+
+    /**
+     * Допустимые переходы: владелец решает только судьбу ожидающего бронирования.
+     */
+    public boolean canBecome(BookingStatus next) {
+        return switch (this) {
+            case WAITING -> next == APPROVED || next == REJECTED;
+            case APPROVED, REJECTED, CANCELED -> false;
+        };
+    }
+
+    /**
+     * Статусы, из которых бронирование может перейти в данный.
+     */
+    public List<BookingStatus> sources() {
+        return Arrays.stream(values())
+                .filter(status -> status.canBecome(this))
+                .toList();
+    }
 }
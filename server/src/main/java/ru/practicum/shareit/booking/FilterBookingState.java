@@ -1,10 +1,44 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum FilterBookingState {
     ALL,
     CURRENT,
     PAST,
     FUTURE,
     WAITING,
-    REJECTED
+    REJECTED;
+
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Разбирает состояния, перечисленные через запятую, например {@code CURRENT,WAITING}.
+     */
+    public static Set<FilterBookingState> parse(String value) {
+        Set<FilterBookingState> states = EnumSet.noneOf(FilterBookingState.class);
+        for (String part : value.split(SEPARATOR)) {
+            try {
+                states.add(valueOf(part.strip()));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("неизвестное состояние бронирования: %s", part);
+            }
+        }
+        return states;
+    }
+
+    public boolean isTimeState() {
+        return this == CURRENT || this == PAST || this == FUTURE;
+    }
+
+    public boolean isStatusState() {
+        return this == WAITING || this == REJECTED;
+    }
+
+    public BookingStatus toStatus() {
+        return BookingStatus.valueOf(name());
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Возвращает бронирования, подходящие под фильтр, после позиции {@code cursor}
+     * в порядке (start, id) вместе с вещами и арендаторами.
+     */
+    List<Booking> findByFilter(BookingFilter filter, BookingCursor cursor, Limit limit);
+}
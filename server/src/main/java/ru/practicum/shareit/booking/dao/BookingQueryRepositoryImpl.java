@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.FilterBookingState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Строит один параметризованный запрос по фильтру бронирований. Текст запроса зависит
+ * только от формы фильтра, а не от значений, поэтому запросы одной формы используют
+ * один план из кэша запросов Hibernate и один подготовленный запрос в базе.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    private static final String SELECT = """
+            SELECT b
+            FROM Booking as b
+            JOIN FETCH b.item as i
+            JOIN FETCH b.booker
+            """;
+
+    private static final String BY_BOOKER = "WHERE b.booker.id = :userId\n";
+    private static final String BY_OWNER = "WHERE i.owner.id = :userId\n";
+
+    private static final String CURRENT = "(b.start < :now AND b.end > :now)";
+    private static final String PAST = "b.end < :now";
+    private static final String FUTURE = "b.start > :now";
+
+    private static final String WITH_STATUSES = "AND b.status IN :statuses\n";
+
+    private static final String AFTER_CURSOR = "AND (b.start > :afterStart OR (b.start = :afterStart AND b.id > :afterId))\n";
+    private static final String ORDER_BY_START = "ORDER BY b.start ASC, b.id ASC";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Booking> findByFilter(BookingFilter filter, BookingCursor cursor, Limit limit) {
+        Shape shape = Shape.of(filter, cursor);
+
+        TypedQuery<Booking> query = em.createQuery(buildJpql(shape), Booking.class)
+                .setParameter("userId", filter.getUserId());
+
+        if (shape.afterCursor()) {
+            query.setParameter("afterStart", cursor.getStart());
+            query.setParameter("afterId", cursor.getId());
+        }
+        if (!shape.timeStates().isEmpty()) {
+            query.setParameter("now", filter.getNow());
+        }
+        if (shape.withStatuses()) {
+            query.setParameter("statuses", filter.getStatuses());
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        return query.getResultList();
+    }
+
+    String jpqlFor(BookingFilter filter, BookingCursor cursor) {
+        return buildJpql(Shape.of(filter, cursor));
+    }
+
+    private static String buildJpql(Shape shape) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        jpql.append(shape.role() == BookingRole.OWNER ? BY_OWNER : BY_BOOKER);
+
+        if (!shape.timeStates().isEmpty()) {
+            List<String> predicates = new ArrayList<>();
+            for (FilterBookingState state : shape.timeStates()) {
+                predicates.add(switch (state) {
+                    case CURRENT -> CURRENT;
+                    case PAST -> PAST;
+                    case FUTURE -> FUTURE;
+                    default -> throw new IllegalStateException("not a time state: " + state);
+                });
+            }
+            jpql.append("AND (").append(String.join(" OR ", predicates)).append(")\n");
+        }
+        if (shape.withStatuses()) {
+            jpql.append(WITH_STATUSES);
+        }
+        if (shape.afterCursor()) {
+            jpql.append(AFTER_CURSOR);
+        }
+
+        return jpql.append(ORDER_BY_START).toString();
+    }
+
+    // то, что влияет на текст запроса; значения параметров в форму не входят
+    private record Shape(BookingRole role,
+                         Set<FilterBookingState> timeStates,
+                         boolean withStatuses,
+                         boolean afterCursor) {
+
+        static Shape of(BookingFilter filter, BookingCursor cursor) {
+            return new Shape(filter.getRole(), filter.getTimeStates(), !filter.getStatuses().isEmpty(),
+                    !cursor.isFirst());
+        }
+    }
+}
@@ -1,74 +1,85 @@
 package ru.practicum.shareit.booking.dao;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
-    List<Booking> findAllByBookerOrderByStartAsc(User booker);
-
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfterOrderByStartAsc(User booker, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findAllByBookerAndEndBeforeOrderByStartAsc(User booker, LocalDateTime end);
-
-    List<Booking> findAllByBookerAndStartAfterOrderByStartAsc(User booker, LocalDateTime end);
-
-    List<Booking> findAllByBookerAndStatusOrderByStartAsc(User booker, BookingStatus status);
-
-    @Query("""
-            SELECT b
-            FROM Booking as b
-            JOIN b.item as i
-            WHERE i.owner = :owner
-            ORDER BY start ASC""")
-    List<Booking> findAllByOwnerOrderByStartAsc(@Param("owner") User owner);
+    boolean existsByItemAndBookerAndStatusAndEndBefore(Item item, User booker, BookingStatus status, LocalDateTime now);
 
     @Query("""
-            SELECT b
+            SELECT b.id as id,
+                   b.item.id as itemId,
+                   b.start as start,
+                   b.end as end
             FROM Booking as b
-            JOIN b.item as i
-            WHERE i.owner = :owner
-            AND b.start < :now AND b.end > :now
-            ORDER BY start ASC""")
-    List<Booking> findAllCurrentByOwnerOrderByStartAsc(@Param("owner") User owner, @Param("now") LocalDateTime now);
+            WHERE b.status IN :statuses
+            AND b.end > :now
+            AND b.id > :afterId
+            ORDER BY b.id""")
+    List<BookingInterval> findIntervals(@Param("statuses") Collection<BookingStatus> statuses,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("afterId") long afterId,
+                                        Limit limit);
 
     @Query("""
-            SELECT b
+            SELECT b.id as id,
+                   b.item.id as itemId,
+                   b.start as start,
+                   b.end as end
             FROM Booking as b
-            JOIN b.item as i
-            WHERE i.owner = :owner
-            AND b.end < :now
-            ORDER BY start ASC""")
-    List<Booking> findAllPastByOwnerOrderByStartAsc(@Param("owner") User owner, @Param("now") LocalDateTime now);
+            WHERE b.id IN :bookingIds
+            AND b.status IN :statuses
+            AND b.item.owner = :owner""")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BookingInterval> findIntervalsByIdsAndOwnerForUpdate(@Param("bookingIds") Collection<Long> bookingIds,
+                                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                                              @Param("owner") User owner);
 
+    // одно обновление на все решения владельца: бронирования чужих вещей не меняются
+    @Modifying
     @Query("""
-            SELECT b
-            FROM Booking as b
-            JOIN b.item as i
-            WHERE i.owner = :owner
-            AND b.start > :now
-            ORDER BY start ASC""")
-    List<Booking> findAllByOwnerOrderByStartAsc(@Param("owner") User owner, @Param("now") LocalDateTime now);
+            UPDATE Booking b
+            SET b.status = CASE WHEN b.id IN :approvedIds
+                                THEN ru.practicum.shareit.booking.BookingStatus.APPROVED
+                                ELSE ru.practicum.shareit.booking.BookingStatus.REJECTED
+                           END,
+                b.version = b.version + 1
+            WHERE b.id IN :bookingIds
+            AND b.item.id IN (SELECT item.id FROM Item item WHERE item.owner = :owner)""")
+    int decideByOwner(@Param("bookingIds") Collection<Long> bookingIds,
+                      @Param("approvedIds") Collection<Long> approvedIds,
+                      @Param("owner") User owner);
 
+    // переход без предварительного чтения: условие на статус делает повтор и гонку безопасными
+    @Transactional
+    @Modifying(clearAutomatically = true)
     @Query("""
-            SELECT b
-            FROM Booking as b
-            JOIN b.item as i
-            WHERE i.owner = :owner
-            AND b.status = :status
-            ORDER BY start ASC""")
-    List<Booking> findAllByOwnerAndStatusOrderByStartAsc(@Param("owner") User owner,
-                                                         @Param("status") BookingStatus status);
-
-    boolean existsByItemAndBookerAndStatusAndEndBefore(Item item, User booker, BookingStatus status, LocalDateTime now);
+            UPDATE Booking b
+            SET b.status = :target,
+                b.version = b.version + 1
+            WHERE b.id = :bookingId
+            AND b.status IN :sources
+            AND b.item.id IN (SELECT item.id FROM Item item WHERE item.owner.id = :ownerId)""")
+    int transition(@Param("bookingId") long bookingId,
+                   @Param("ownerId") long ownerId,
+                   @Param("sources") Collection<BookingStatus> sources,
+                   @Param("target") BookingStatus target);
 }
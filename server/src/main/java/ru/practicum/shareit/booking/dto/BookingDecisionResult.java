@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * Итог решения по одному бронированию. Решение не применяется, если бронирование не найдено
+ * среди бронирований вещей владельца, тогда статус не заполнен.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionResult {
+
+    private Long bookingId;
+
+    private boolean applied;
+
+    private BookingStatus status;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+/**
+ * Публикует в Micrometer статистику областей кэша второго уровня: cache.gets (hit/miss),
+ * cache.puts, cache.removals и cache.evictions с тегом cache - именем области.
+ * Статистику JCache собирает при monitoring.statistics = true в application.conf.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            if (entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory()
+                    instanceof JCacheRegionFactory regionFactory) {
+                CacheManager cacheManager = regionFactory.getCacheManager();
+                cacheManager.getCacheNames().forEach(name ->
+                        JCacheMetrics.monitor(registry, cacheManager.getCache(name)));
+            }
+        };
+    }
+}
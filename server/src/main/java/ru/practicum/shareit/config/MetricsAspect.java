@@ -0,0 +1,77 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Метрики, которых нет у Spring Boot: число строк, возвращенных репозиториями
+ * (время их запросов - spring.data.repository.invocations), и время преобразования в DTO.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricsAspect {
+
+    public static final String REPOSITORY_ROWS = "shareit.repository.rows";
+    public static final String MAPPER_TIMER = "shareit.mapper";
+
+    private final MeterRegistry meterRegistry;
+
+    // унаследованные методы (findById, findAll) объявлены не в наших интерфейсах, поэтому отбор по прокси
+    @AfterReturning(pointcut = "this(org.springframework.data.repository.Repository)", returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        Long rows = rowCount(result);
+        if (rows == null) {
+            return;
+        }
+
+        DistributionSummary.builder(REPOSITORY_ROWS)
+                .description("Rows returned by a repository method")
+                .tag("repository", AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())[0].getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    @Around("execution(* ru.practicum.shareit..*Mapper.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder(MAPPER_TIMER)
+                    .description("Entity to DTO mapping time")
+                    .tag("mapper", joinPoint.getTarget().getClass().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // null - метод возвращает не строки (count, exists, void)
+    private static Long rowCount(Object result) {
+        return switch (result) {
+            case null -> null;
+            case Collection<?> collection -> (long) collection.size();
+            case Slice<?> slice -> (long) slice.getNumberOfElements();
+            case Optional<?> optional -> optional.isPresent() ? 1L : 0L;
+            case Number number -> null;
+            case Boolean bool -> null;
+            default -> 1L;
+        };
+    }
+}
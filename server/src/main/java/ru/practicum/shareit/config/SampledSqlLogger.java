@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Пишет в журнал текст случайной доли SQL-запросов без значений параметров.
+ * Дает представление о потоке запросов без затрат на журналирование каждого из них.
+ */
+@Slf4j
+public class SampledSqlLogger implements StatementInspector {
+
+    private final double sampleRate;
+    private final DoubleSupplier random;
+
+    public SampledSqlLogger(double sampleRate) {
+        this(sampleRate, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    SampledSqlLogger(double sampleRate, DoubleSupplier random) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("SQL sample rate must be within [0, 1], got " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.random = random;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (log.isInfoEnabled() && random.getAsDouble() < sampleRate) {
+            log.info("sampled sql: {}", sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlLogConfig {
+
+    // заданный в свойствах statement_inspector не заменяется
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogCustomizer(
+            @Value("${shareit.sql-log.sample-rate:0}") double sampleRate) {
+        return properties -> {
+            if (sampleRate > 0) {
+                properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sampleRate));
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,6 +29,14 @@ public class ErrorHandler {
                 HttpStatus.CONFLICT);
     }
 
+    // сущность изменили одновременно с нами, повторить запрос можно уже на новой версии
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException e) {
+        log.debug("concurrent modification", e);
+        return new ResponseEntity<>(new ErrorResponse("конфликт", "сущность изменена одновременно другим запросом"),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleConstrainViolation(ConstraintViolationException e) {
 
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,7 @@ import java.time.LocalDateTime;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class CommentService {
     private final ItemService itemService;
@@ -26,7 +28,7 @@ public class CommentService {
     @Transactional
     public Comment createComment(CreateCommentRequest request, Long itemId, Long userId, LocalDateTime now) {
 
-        log.info("creating comment = {}", request);
+        log.debug("creating comment {}", request);
 
         Item item = itemService.getById(itemId);
         User user = userService.getById(userId);
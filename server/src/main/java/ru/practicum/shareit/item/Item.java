@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 import ru.practicum.shareit.itemRequest.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -10,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Getter
 @Setter
 @ToString
@@ -19,10 +23,12 @@ import java.util.List;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
@@ -32,13 +38,21 @@ public class Item {
 
     private boolean available;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "item")
+    @OptimisticLock(excluded = false)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-comments")
     private List<Comment> comments = new ArrayList<>();
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
 
+    // растет и при добавлении комментария: коллекция comments входит в версию вещи
+    @Version
+    private long version;
+
     @Transient
     private LocalDateTime lastBooking;
 
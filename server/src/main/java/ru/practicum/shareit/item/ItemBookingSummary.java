@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Даты последнего и ближайшего бронирования вещи, посчитанные на момент {@code computedAt}.
+ * Остаются верными до {@code validUntil}: до этого момента ни одно бронирование
+ * не начинается и не заканчивается.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking")
+    private LocalDateTime lastBooking;
+
+    @Column(name = "next_booking")
+    private LocalDateTime nextBooking;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    public boolean isValidAt(LocalDateTime now) {
+        return !now.isBefore(computedAt) && (validUntil == null || now.isBefore(validUntil));
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает таблицу дат последнего и ближайшего бронирования вещей.
+ * Новое бронирование учитывается без пересчета, а устаревшие по времени записи
+ * пересчитывает фоновая задача. Записи одной вещи меняются под блокировкой вещи,
+ * под которой создаются ее бронирования.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ItemBookingSummaryRepository repo;
+    private final BookingIntervalIndex intervalIndex;
+
+    public void onItemCreated(Item item) {
+        repo.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .computedAt(LocalDateTime.now())
+                .build());
+    }
+
+    public void onItemsCreated(List<Item> items) {
+        repo.insertEmpty(items.stream().map(Item::getId).toList(), LocalDateTime.now());
+    }
+
+    /**
+     * Учитывает созданное бронирование. Вызывается под блокировкой вещи.
+     */
+    public void onBookingCreated(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        long itemId = booking.getItem().getId();
+
+        Optional<ItemBookingSummary> current = repo.findById(itemId)
+                .filter(summary -> summary.isValidAt(now));
+
+        if (current.isEmpty() || !booking.getStart().isAfter(now)) {
+            refresh(itemId, now);
+            return;
+        }
+
+        // будущее бронирование не влияет на последнюю дату: оно лишь может стать ближайшим
+        // и приблизить момент, когда даты придется пересчитать
+        ItemBookingSummary summary = current.get();
+        summary.setNextBooking(earliest(summary.getNextBooking(), booking.getEnd()));
+        summary.setValidUntil(earliest(summary.getValidUntil(), booking.getStart()));
+        repo.save(summary);
+    }
+
+    /**
+     * Учитывает созданные пачкой бронирования одной транзакцией. Вызывается под блокировкой их вещей.
+     */
+    @Transactional
+    public void onBookingsCreated(List<Booking> bookings) {
+        bookings.forEach(this::onBookingCreated);
+    }
+
+    /**
+     * Возвращает записи вещей владельца, верные на момент {@code now}, по идентификатору вещи.
+     */
+    public Map<Long, ItemBookingSummary> getValidByOwner(User owner, LocalDateTime now) {
+        return repo.findAllByOwner(owner).stream()
+                .filter(summary -> summary.isValidAt(now))
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-booking-summary.sweep-delay-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int count = 0;
+        List<Long> batch;
+        do {
+            batch = repo.findStaleItemIds(now, afterId, Limit.of(BATCH_SIZE));
+            for (Long itemId : batch) {
+                intervalIndex.withItemLock(itemId, () -> {
+                    refresh(itemId, now);
+                    return null;
+                });
+                afterId = itemId;
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        if (count > 0) {
+            log.info("refreshed {} stale item booking summary(ies)", count);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        log.info("backfilling item booking summaries");
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int count = 0;
+        List<Long> batch;
+        do {
+            batch = repo.findItemIdsWithoutSummary(afterId, Limit.of(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ItemBookingDates dates : repo.computeDates(batch, now)) {
+                // пока считались даты, запись могло создать бронирование, и она точнее нашей
+                intervalIndex.withItemLock(dates.getId(), () -> {
+                    if (!repo.existsById(dates.getId())) {
+                        repo.save(toSummary(dates, now));
+                    }
+                    return null;
+                });
+            }
+            afterId = batch.getLast();
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        log.info("item booking summaries are backfilled, {} item(s) processed", count);
+    }
+
+    private void refresh(long itemId, LocalDateTime now) {
+        repo.computeDates(List.of(itemId), now).stream()
+                .findFirst()
+                .ifPresent(dates -> repo.save(toSummary(dates, now)));
+    }
+
+    private static ItemBookingSummary toSummary(ItemBookingDates dates, LocalDateTime now) {
+        return ItemBookingSummary.builder()
+                .itemId(dates.getId())
+                .lastBooking(dates.getLastBooking())
+                .nextBooking(dates.getNextBooking())
+                .validUntil(dates.getValidUntil())
+                .computedAt(now)
+                .build();
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+}
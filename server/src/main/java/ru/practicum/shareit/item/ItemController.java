@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
 
 import java.time.LocalDateTime;
@@ -20,6 +22,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemMapper mapper;
     private final ItemService itemService;
     private final CommentService commentService;
@@ -32,6 +36,15 @@ public class ItemController {
         return new ResponseEntity<>(mapper.toDto(item), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createItems(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid CreateItemRequest> requests,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+
+        List<Item> items = itemService.createItems(requests, userId);
+        return new ResponseEntity<>(mapper.toDto(items), HttpStatus.CREATED);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(
             @Valid @RequestBody UpdateItemRequest request,
@@ -42,11 +55,15 @@ public class ItemController {
         return ResponseEntity.ok().body(mapper.toDto(item));
     }
 
+    // ETag - версия вещи, поэтому неизмененная вещь не преобразуется в DTO и комментарии не загружаются
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemDto> getById(@PathVariable Long itemId) {
+    public ResponseEntity<ItemDto> getById(@PathVariable Long itemId, WebRequest webRequest) {
         Item item = itemService.getById(itemId);
-        log.info("item = {}", item);
-        return ResponseEntity.ok().body(mapper.toDto(item));
+        String etag = String.valueOf(item.getVersion());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(mapper.toDto(item));
     }
 
     @GetMapping
@@ -68,7 +85,7 @@ public class ItemController {
                                                     @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now()}", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime now,
                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
 
-        log.info("creating comment on item {} by {} at {}", itemId, userId, now);
+        log.debug("creating comment on item {} by {} at {}", itemId, userId, now);
         Comment comment = commentService.createComment(request, itemId, userId, now);
         return new ResponseEntity<>(mapper.toCommentDto(comment), HttpStatus.CREATED);
     }
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSearchEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Повторяет семантику {@code ilike %text%}: кандидаты отбираются по пересечению триграмм,
+ * затем каждый проверяется поиском подстроки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    static final int GRAM_SIZE = 3;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository repo;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // вещи, измененные во время построения индекса: их снимок из базы уже устарел
+    private final Set<Long> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        log.info("building item search index");
+
+        long afterId = 0;
+        int count = 0;
+        List<ItemSearchEntry> batch;
+        do {
+            batch = repo.findSearchEntries(afterId, Limit.of(BUILD_BATCH_SIZE));
+            for (ItemSearchEntry entry : batch) {
+                Document document = new Document(entry.getName(), entry.getDescription());
+                documents.compute(entry.getId(), (id, current) -> {
+                    if (touchedDuringBuild.contains(id)) {
+                        return current;
+                    }
+                    addPostings(id, document);
+                    return document;
+                });
+                afterId = entry.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        ready = true;
+        touchedDuringBuild.clear();
+        log.info("item search index is built, {} item(s) indexed", count);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        if (!item.isAvailable()) {
+            remove(item.getId());
+            return;
+        }
+
+        if (!ready) {
+            touchedDuringBuild.add(item.getId());
+        }
+
+        Document document = new Document(item.getName(), item.getDescription());
+        documents.compute(item.getId(), (id, current) -> {
+            if (current != null) {
+                removePostings(id, current);
+            }
+            addPostings(id, document);
+            return document;
+        });
+    }
+
+    public void remove(long itemId) {
+        if (!ready) {
+            touchedDuringBuild.add(itemId);
+        }
+
+        documents.computeIfPresent(itemId, (id, current) -> {
+            removePostings(id, current);
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает идентификаторы доступных вещей, в названии или описании которых
+     * встречается {@code text} без учета регистра, в порядке возрастания.
+     */
+    public List<Long> search(String text) {
+        String query = normalize(text);
+
+        if (query.length() < GRAM_SIZE) {
+            return documents.entrySet().stream()
+                    .filter(entry -> entry.getValue().contains(query))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+        }
+
+        Set<Long> candidates = null;
+        for (String gram : gramsOf(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (candidates == null || ids.size() < candidates.size()) {
+                candidates = ids;
+            }
+        }
+
+        List<Long> found = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document != null && document.contains(query)) {
+                found.add(id);
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+
+    private void addPostings(long id, Document document) {
+        for (String gram : document.grams()) {
+            postings.compute(gram, (g, ids) -> {
+                Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                result.add(id);
+                return result;
+            });
+        }
+    }
+
+    private void removePostings(long id, Document document) {
+        for (String gram : document.grams()) {
+            postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record Document(String name, String description) {
+
+        Document {
+            name = normalize(name);
+            description = normalize(description);
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(name);
+            grams.addAll(gramsOf(description));
+            return grams;
+        }
+    }
+}
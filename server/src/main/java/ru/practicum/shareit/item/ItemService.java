@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.CommentRepository;
@@ -17,12 +19,19 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemService {
@@ -32,6 +41,8 @@ public class ItemService {
     private final ItemMapper mapper;
     private final CommentRepository commentRepository;
     private final ItemRequestService itemRequestService;
+    private final ItemSearchIndex searchIndex;
+    private final ItemBookingSummaryService bookingSummaryService;
 
     @Transactional
     public Item createItem(CreateItemRequest request, long userId) {
@@ -45,7 +56,49 @@ public class ItemService {
             item.setItemRequest(itemRequest);
         }
 
-        return repo.save(item);
+        Item savedItem = repo.save(item);
+        AfterCommit.run(() -> searchIndex.index(savedItem));
+        bookingSummaryService.onItemCreated(savedItem);
+        itemRequestService.onItemChanged(savedItem);
+        return savedItem;
+    }
+
+    /**
+     * Создает вещи пачкой одной транзакцией: вещи вставляются пакетами, пустые записи дат
+     * бронирования - одним запросом, а версия каждого запроса-источника увеличивается один раз.
+     */
+    @Transactional
+    public List<Item> createItems(List<CreateItemRequest> requests, long userId) {
+
+        log.debug("creating {} item(s) by user {}", requests.size(), userId);
+
+        User owner = userService.getById(userId);
+        Map<Long, ItemRequest> itemRequests = new HashMap<>();
+
+        List<Item> items = requests.stream()
+                .map(request -> {
+                    Item item = mapper.toItem(request);
+                    item.setOwner(owner);
+                    if (request.getRequestId() != null) {
+                        item.setItemRequest(itemRequests.computeIfAbsent(request.getRequestId(),
+                                itemRequestService::getById));
+                    }
+                    return item;
+                })
+                .toList();
+
+        List<Item> savedItems = repo.saveAll(items);
+        bookingSummaryService.onItemsCreated(savedItems);
+        AfterCommit.run(() -> savedItems.forEach(searchIndex::index));
+        savedItems.stream()
+                .filter(item -> item.getItemRequest() != null)
+                .collect(Collectors.toMap(item -> item.getItemRequest().getId(), Function.identity(),
+                        (first, second) -> first))
+                .values()
+                .forEach(itemRequestService::onItemChanged);
+
+        log.info("created {} item(s) by user {}", savedItems.size(), userId);
+        return savedItems;
     }
 
     @Transactional
@@ -74,7 +127,10 @@ public class ItemService {
             item.setAvailable(newAvailable);
         }
 
-        return repo.save(item);
+        Item savedItem = repo.save(item);
+        AfterCommit.run(() -> searchIndex.index(savedItem));
+        itemRequestService.onItemChanged(savedItem);
+        return savedItem;
     }
 
     public Item getById(long itemId) {
@@ -82,13 +138,41 @@ public class ItemService {
                 .orElseThrow(() -> new NotFoundException("не найдена вещь с id = %s", itemId));
     }
 
+    /**
+     * Возвращает вещи по идентификатору одним запросом; если какой-то вещи нет - {@link NotFoundException}.
+     */
+    public Map<Long, Item> getByIds(Collection<Long> itemIds) {
+        Map<Long, Item> items = repo.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        itemIds.stream()
+                .filter(itemId -> !items.containsKey(itemId))
+                .findFirst()
+                .ifPresent(itemId -> {
+                    throw new NotFoundException("не найдена вещь с id = %s", itemId);
+                });
+        return items;
+    }
+
     public List<Item> getByUserId(long userId, LocalDateTime now) {
 
         User owner = userService.getById(userId);
 
+        List<Item> items = repo.findAllByOwnerWithComments(owner);
+        Map<Long, ItemBookingSummary> summaries = bookingSummaryService.getValidByOwner(owner, now);
+
+        if (items.stream().allMatch(item -> summaries.containsKey(item.getId()))) {
+            items.forEach(item -> {
+                ItemBookingSummary summary = summaries.get(item.getId());
+                item.setLastBooking(summary.getLastBooking());
+                item.setNextBooking(summary.getNextBooking());
+            });
+            return items;
+        }
+
+        // запрошенный момент вне периода, на который посчитаны даты, - считаем по бронированиям
         Map<Long, ItemLastNextBookDate> itemById = groupById(repo.getLastAndNextBookingDate(owner, now));
 
-        List<Item> items = repo.findAllByOwnerWithComments(owner);
         items.forEach(item -> {
             if (itemById.get(item.getId()) != null) {
                 ItemLastNextBookDate date = itemById.get(item.getId());
@@ -100,11 +184,39 @@ public class ItemService {
         return items;
     }
 
+    /**
+     * Загружает комментарии вещей вместе с авторами одним запросом вместо отдельного запроса на каждую вещь.
+     * Вещи должны быть загружены в текущей транзакции.
+     */
+    public void fetchComments(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Set<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        repo.findAllWithCommentsByIds(itemIds);
+    }
+
     public List<Item> search(String searchString) {
         if (searchString == null || searchString.isBlank()) {
             return List.of();
         }
-        return repo.search(searchString);
+
+        if (!searchIndex.isReady()) {
+            log.info("search index is not ready, searching items by database");
+            return repo.search(searchString);
+        }
+
+        List<Long> ids = searchIndex.search(searchString);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Item> items = new ArrayList<>(repo.findAllById(ids));
+        items.sort(Comparator.comparing(Item::getId));
+        return items;
     }
 
     @Transactional
@@ -118,6 +230,8 @@ public class ItemService {
         }
 
         repo.deleteById(itemId);
+        AfterCommit.run(() -> searchIndex.remove(itemId));
+        itemRequestService.onItemChanged(item);
     }
 
     private Map<Long, ItemLastNextBookDate> groupById(List<ItemLastNextBookDate> items) {
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    String FIND_BY_OWNER = """
+            SELECT summary
+            FROM ItemBookingSummary summary
+            JOIN Item item ON item.id = summary.itemId
+            WHERE item.owner = :owner
+            """;
+
+    // даты меняются, когда ближайшее будущее бронирование начинается
+    // или когда заканчивается еще не завершившееся
+    String COMPUTE_DATES = """
+            SELECT item.id as id,
+                   max(CASE WHEN booking.end < :now THEN booking.start END) as lastBooking,
+                   min(CASE WHEN booking.start > :now THEN booking.end END) as nextBooking,
+                   min(CASE
+                           WHEN booking.start > :now THEN booking.start
+                           WHEN booking.end >= :now THEN booking.end
+                       END) as validUntil
+            FROM Item item
+            LEFT JOIN Booking booking ON booking.item = item
+            WHERE item.id IN :itemIds
+            GROUP BY item.id""";
+
+    String FIND_STALE_ITEM_IDS = """
+            SELECT summary.itemId
+            FROM ItemBookingSummary summary
+            WHERE summary.validUntil <= :now
+            AND summary.itemId > :afterId
+            ORDER BY summary.itemId""";
+
+    String FIND_ITEM_IDS_WITHOUT_SUMMARY = """
+            SELECT item.id
+            FROM Item item
+            WHERE item.id > :afterId
+            AND NOT EXISTS (SELECT 1 FROM ItemBookingSummary summary WHERE summary.itemId = item.id)
+            ORDER BY item.id""";
+
+    // пустые записи новых вещей: идентификатор задан, поэтому save() сначала искал бы каждую запись
+    String INSERT_EMPTY = """
+            INSERT INTO ItemBookingSummary (itemId, computedAt)
+            SELECT item.id, :computedAt
+            FROM Item item
+            WHERE item.id IN :itemIds""";
+
+    @Query(FIND_BY_OWNER)
+    List<ItemBookingSummary> findAllByOwner(@Param("owner") User owner);
+
+    @Query(COMPUTE_DATES)
+    List<ItemBookingDates> computeDates(@Param("itemIds") Collection<Long> itemIds,
+                                        @Param("now") LocalDateTime now);
+
+    @Query(FIND_STALE_ITEM_IDS)
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now,
+                                @Param("afterId") long afterId,
+                                Limit limit);
+
+    @Query(FIND_ITEM_IDS_WITHOUT_SUMMARY)
+    List<Long> findItemIdsWithoutSummary(@Param("afterId") long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_EMPTY)
+    void insertEmpty(@Param("itemIds") Collection<Long> itemIds,
+                     @Param("computedAt") LocalDateTime computedAt);
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dto.ItemLastNextBookDate;
+import ru.practicum.shareit.item.dto.ItemSearchEntry;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -16,10 +21,19 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             SELECT item
             FROM Item item
             JOIN item.owner owner
-            LEFT JOIN FETCH item.comments
+            LEFT JOIN FETCH item.comments comment
+            LEFT JOIN FETCH comment.author
             WHERE owner = :owner
             """;
 
+    String FIND_WITH_COMMENTS_BY_IDS = """
+            SELECT item
+            FROM Item item
+            LEFT JOIN FETCH item.comments comment
+            LEFT JOIN FETCH comment.author
+            WHERE item.id IN :itemIds
+            """;
+
     String SEARCH_QUERY = """
             SELECT id as "id",
                    owner_id as "owner_id",
@@ -34,24 +48,55 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             );
             """;
 
-    String FIND_LAST_AND_NEXT_BOOK_DATE = """
+    String FIND_SEARCH_ENTRIES = """
             SELECT item.id as id,
-                   max(pastBooking.start) as lastBooking,
-                   min(nextBooking.end) as nextBooking
+                   item.name as name,
+                   item.description as description
+            FROM Item item
+            WHERE item.available = true
+            AND item.id > :afterId
+            ORDER BY item.id""";
+
+    // каждое бронирование вещи попадает в соединение ровно один раз: прошедшие и будущие
+    // разделяются условием внутри агрегата, а не вторым соединением с той же таблицей
+    String LAST_AND_NEXT_BOOK_DATE_SOURCE = """
             FROM Item item
             JOIN item.owner owner
-            LEFT JOIN Booking pastBooking ON pastBooking.item = item AND pastBooking.end < :now
-            LEFT JOIN Booking nextBooking ON nextBooking.item = item AND nextBooking.start > :now
+            LEFT JOIN Booking booking ON booking.item = item
             WHERE owner = :owner
+            """;
+
+    String FIND_LAST_AND_NEXT_BOOK_DATE = """
+            SELECT item.id as id,
+                   max(CASE WHEN booking.end < :now THEN booking.start END) as lastBooking,
+                   min(CASE WHEN booking.start > :now THEN booking.end END) as nextBooking
+            """ + LAST_AND_NEXT_BOOK_DATE_SOURCE + """
             GROUP BY item.id""";
 
+    String INCREMENT_VERSIONS_COMMENTED_BY = """
+            UPDATE Item item
+            SET item.version = item.version + 1
+            WHERE item.id IN (SELECT comment.item.id FROM Comment comment WHERE comment.author.id = :authorId)""";
+
     @Query(value = FIND_BY_OWNER_ID)
     List<Item> findAllByOwnerWithComments(@Param("owner") User owner);
 
+    @Query(value = FIND_WITH_COMMENTS_BY_IDS)
+    List<Item> findAllWithCommentsByIds(@Param("itemIds") Collection<Long> itemIds);
+
     @Query(value = SEARCH_QUERY, nativeQuery = true)
     List<Item> search(@Param("substring") String substring);
 
+    @Query(value = FIND_SEARCH_ENTRIES)
+    List<ItemSearchEntry> findSearchEntries(@Param("afterId") long afterId, Limit limit);
+
     @Query(value = FIND_LAST_AND_NEXT_BOOK_DATE)
     List<ItemLastNextBookDate> getLastAndNextBookingDate(@Param("owner") User owner,
                                                          @Param("now") LocalDateTime now);
+
+    // имя автора входит в комментарии вещи, поэтому при его смене меняются и версии вещей
+    @Transactional
+    @Modifying
+    @Query(value = INCREMENT_VERSIONS_COMMENTED_BY)
+    void incrementVersionsCommentedBy(@Param("authorId") long authorId);
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingDates {
+
+    Long getId();
+
+    LocalDateTime getLastBooking();
+
+    LocalDateTime getNextBooking();
+
+    LocalDateTime getValidUntil();
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.itemRequest;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import ru.practicum.shareit.item.Item;
@@ -12,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-requests")
 @Getter
 @Setter
 @ToString
@@ -22,18 +25,33 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_id_seq")
+    @SequenceGenerator(name = "item_requests_id_seq", sequenceName = "item_requests_id_seq", allocationSize = 50)
     private Long id;
 
     private String description;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
     private User requester;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "itemRequest")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-request-items")
     private List<Item> items = new ArrayList<>();
 
     @CreatedDate
     private Instant created;
+
+    @Version
+    private long version;
+
+    public ItemRequest(Long id, String description, User requester, List<Item> items, Instant created) {
+        this.id = id;
+        this.description = description;
+        this.requester = requester;
+        this.items = items;
+        this.created = created;
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.itemRequest.dto.CreateItemRequestRequest;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
 
@@ -42,9 +43,14 @@ public class ItemRequestController {
         return new ResponseEntity<>(mapper.toDto(requests), HttpStatus.OK);
     }
 
+    // ETag - версия запроса, неизмененный запрос не преобразуется в DTO
     @GetMapping("/{requestId}")
-    public ResponseEntity<ItemRequestDto> getRequest(@PathVariable Long requestId) {
+    public ResponseEntity<ItemRequestDto> getRequest(@PathVariable Long requestId, WebRequest webRequest) {
         ItemRequest itemRequest = itemRequestService.getByIdWithItems(requestId);
-        return new ResponseEntity<>(mapper.toDto(itemRequest), HttpStatus.OK);
+        String etag = String.valueOf(itemRequest.getVersion());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(mapper.toDto(itemRequest));
     }
 }
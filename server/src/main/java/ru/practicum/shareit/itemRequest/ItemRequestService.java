@@ -1,9 +1,16 @@
 package ru.practicum.shareit.itemRequest;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.itemRequest.dto.CreateItemRequestRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
@@ -12,15 +19,17 @@ import java.util.List;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class ItemRequestService {
 
     private final UserService userService;
     private final ItemRequestMapper mapper;
     private final ItemRequestRepository repo;
+    private final EntityManager em;
 
     public ItemRequest createItemRequest(CreateItemRequestRequest request, Long userId) {
-        log.info("creating request {} by {}", request, userId);
+        log.debug("creating request {} by {}", request, userId);
 
         User user = userService.getById(userId);
 
@@ -29,23 +38,37 @@ public class ItemRequestService {
     }
 
     public List<ItemRequest> getUserRequests(Long userId) {
-        log.info("getting user {} requests", userId);
+        log.debug("getting user {} requests", userId);
         User user = userService.getById(userId);
         return repo.findAllByRequesterWithItems(user);
     }
 
     public List<ItemRequest> getAllRequestsFromOthers(Long userId) {
-        log.info("getting requests from others (user id is {})", userId);
+        log.debug("getting requests from others (user id is {})", userId);
         User user = userService.getById(userId);
         return repo.findAllRequesterNotOrderByCreatedDesc(user);
     }
 
     public ItemRequest getByIdWithItems(Long requestId) {
-        log.info("getting request {}", requestId);
+        log.debug("getting request {}", requestId);
         return repo.findByIdWithItems(requestId)
                 .orElseThrow(() -> new NotFoundException("не найден запрос с id = %s", requestId));
     }
 
+    // вещи-ответы входят в запрос, поэтому их изменение меняет и версию запроса;
+    // версия поднимается через сущность, и в кэше второго уровня сбрасывается только этот запрос
+    // и его коллекция вещей, а не все области целиком, как при массовом UPDATE
+    @Transactional
+    public void onItemChanged(Item item) {
+        ItemRequest itemRequest = item.getItemRequest();
+        if (itemRequest != null) {
+            em.lock(itemRequest, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            Long requestId = itemRequest.getId();
+            AfterCommit.run(() -> em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache()
+                    .evictCollectionData(ItemRequest.class.getName() + ".items", requestId));
+        }
+    }
+
     public ItemRequest getById(Long requestId) {
         return repo.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("не найден запрос с id = %s", requestId));
@@ -1,37 +1,43 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.user.dao.UserRepository;
 
 import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository repo;
     private final UserMapper mapper;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     public User createUser(CreateUserRequest request) {
-        log.info("creating user {}", request);
+        log.debug("creating user {}", request);
         checkEmail(request.getEmail());
         User user = mapper.toUser(request);
         User savedUser = repo.save(user);
-        log.info("saving user {}", user);
+        log.info("created user {}", savedUser.getId());
         return savedUser;
     }
 
     public User updateUser(UpdateUserRequest request, long userId) {
 
-        log.info("updating user {} as {}", userId, request);
+        log.debug("updating user {} as {}", userId, request);
 
         User user = getById(userId);
-        log.info("got user {}", user);
 
         String newName = request.getName();
         String newEmail = request.getEmail();
@@ -44,11 +50,15 @@ public class UserService {
 
         if (newName != null) {
             user.setName(newName);
+            itemRepository.incrementVersionsCommentedBy(userId);
         }
 
-        return repo.save(user);
+        User savedUser = repo.save(user);
+        evictFromCache(userId);
+        return savedUser;
     }
 
+    // почти каждый запрос начинается с проверки пользователя, повторно пользователь читается из кэша второго уровня
     public User getById(long userId) {
         return repo.findById(userId)
                 .orElseThrow(() -> new NotFoundException("не найден пользователь с id = %s", userId));
@@ -61,6 +71,13 @@ public class UserService {
 
     public void deleteUserById(long userId) {
         repo.deleteById(userId);
+        evictFromCache(userId);
+    }
+
+    // как и прежний кэш пользователей, запись сбрасывается при изменении и удалении:
+    // следующее чтение идет в базу, а сброс виден в метрике cache.removals{cache=users}
+    private void evictFromCache(long userId) {
+        AfterCommit.run(() -> entityManagerFactory.getCache().evict(User.class, userId));
     }
 
     private void checkEmail(String email) {
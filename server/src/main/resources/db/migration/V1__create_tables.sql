@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS item_requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR NOT NULL,
@@ -101,4 +95,4 @@ COMMENT ON TABLE item_requests IS 'Таблица запросов вещей';
 COMMENT ON COLUMN item_requests.id IS 'Идентификатор запроса';
 COMMENT ON COLUMN item_requests.description IS 'Описание запроса';
 COMMENT ON COLUMN item_requests.requester_id IS 'Идентификатор пользователя, создавшего запрос';
-COMMENT ON COLUMN item_requests.created IS 'Время создания запроса';
\ No newline at end of file
+COMMENT ON COLUMN item_requests.created IS 'Время создания запроса';
@@ -0,0 +1,17 @@
+-- списки бронирований арендатора и владельца: фильтр по пользователю или вещи, порядок (start, id)
+CREATE INDEX idx_bookings_booker_id_start ON bookings (booker_id, book_start, id);
+CREATE INDEX idx_bookings_item_id_start ON bookings (item_id, book_start, id);
+
+-- даты последнего и ближайшего бронирования, проверка завершенной аренды перед комментарием
+CREATE INDEX idx_bookings_item_id_end ON bookings (item_id, book_end);
+
+-- активные бронирования при прогреве индекса интервалов
+CREATE INDEX idx_bookings_status_end ON bookings (book_status, book_end);
+
+CREATE INDEX idx_items_owner_id ON items (owner_id);
+CREATE INDEX idx_items_request_id ON items (request_id);
+
+CREATE INDEX idx_comments_item_id ON comments (item_id);
+
+CREATE INDEX idx_item_requests_requester_id_created ON item_requests (requester_id, created);
+CREATE INDEX idx_item_requests_created ON item_requests (created);
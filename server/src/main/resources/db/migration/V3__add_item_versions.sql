@@ -0,0 +1,6 @@
+-- версии вещей и запросов служат ETag для GET /items/{id} и GET /requests/{id}
+ALTER TABLE items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+COMMENT ON COLUMN items.version IS 'Версия вещи, растет при изменении вещи и ее комментариев';
+
+ALTER TABLE item_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+COMMENT ON COLUMN item_requests.version IS 'Версия запроса, растет при изменении запроса и вещей-ответов';
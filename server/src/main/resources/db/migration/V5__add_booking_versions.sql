@@ -0,0 +1,3 @@
+-- версия бронирования защищает смену статуса от одновременных изменений
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+COMMENT ON COLUMN bookings.version IS 'Версия бронирования, растет при каждой смене статуса';
@@ -0,0 +1,21 @@
+-- таблица появилась после схемы, с которой база переходит на Flyway, поэтому создается отдельной миграцией;
+-- базы, получившие ее в прежней версии V1, уже содержат таблицу
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY,
+    last_booking TIMESTAMP NULL,
+    next_booking TIMESTAMP NULL,
+    valid_until TIMESTAMP NULL,
+    computed_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_item_booking_summary_item_id
+        FOREIGN KEY(item_id)
+            REFERENCES items(id)
+                ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+COMMENT ON TABLE item_booking_summary IS 'Даты последнего и ближайшего бронирования вещей';
+COMMENT ON COLUMN item_booking_summary.item_id IS 'Идентификатор вещи';
+COMMENT ON COLUMN item_booking_summary.last_booking IS 'Начало последнего завершившегося бронирования';
+COMMENT ON COLUMN item_booking_summary.next_booking IS 'Окончание ближайшего будущего бронирования';
+COMMENT ON COLUMN item_booking_summary.valid_until IS 'Момент, начиная с которого даты нужно пересчитать; NULL - даты не устаревают';
+COMMENT ON COLUMN item_booking_summary.computed_at IS 'Момент, на который посчитаны даты';
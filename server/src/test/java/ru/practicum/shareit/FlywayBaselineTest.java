@@ -0,0 +1,41 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет переход на Flyway базы, созданной прежним schema.sql: V1 совпадает с этой схемой
+ * и пропускается, а все, что появилось позже, создают следующие миграции.
+ */
+class FlywayBaselineTest {
+
+    @Test
+    void givenPreFlywaySchema_whenMigrateWithBaseline_gotAllTables() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:baseline", "sa", "", true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__create_tables.sql'");
+            // в прежней схеме только исходные таблицы
+            assertEquals(5, jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'PUBLIC'", Long.class));
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+
+            assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM item_booking_summary", Long.class));
+            assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM bookings WHERE version > 0", Long.class));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
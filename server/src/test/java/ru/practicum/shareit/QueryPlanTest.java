@@ -0,0 +1,211 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.FilterBookingState;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.itemRequest.ItemRequest;
+import ru.practicum.shareit.itemRequest.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по EXPLAIN, что запросы репозиториев не читают таблицы целиком.
+ * Запросы перехватываются в том виде, в каком их строит Hibernate.
+ * Не проверяются запросы, которые по смыслу читают всю таблицу: поиск по подстроке
+ * (его обслуживает {@link ru.practicum.shareit.item.ItemSearchIndex}) и список чужих запросов вещей.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$RecordingStatementInspector")
+// на почти пустых таблицах H2 выбирает полный просмотр, а незафиксированные строки в оценке не участвуют,
+// поэтому фоновые данные записываются один раз до тестов и фиксируются вместе со статистикой
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS, statements = {
+        "INSERT INTO users (name, email) SELECT 'user' || X, 'user' || X || '@mail.ru' FROM SYSTEM_RANGE(1, 200)",
+        "INSERT INTO item_requests (description, requester_id, created) "
+                + "SELECT 'request', id, CURRENT_TIMESTAMP FROM users",
+        "INSERT INTO items (owner_id, name, description, available, request_id) "
+                + "SELECT requester_id, 'item', 'some item', TRUE, id FROM item_requests",
+        "INSERT INTO bookings (book_start, book_end, item_id, booker_id, book_status) "
+                + "SELECT DATEADD(DAY, id, TIMESTAMP '2025-01-01 00:00:00'), "
+                + "DATEADD(DAY, id + 1, TIMESTAMP '2025-01-01 00:00:00'), id, owner_id, 'WAITING' FROM items",
+        "INSERT INTO item_booking_summary (item_id, computed_at) SELECT id, CURRENT_TIMESTAMP FROM items",
+        "ANALYZE"
+})
+class QueryPlanTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final LocalDateTime NOW = LocalDateTime.parse("2025-01-01T12:00:00");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest itemRequest;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        item = em.persist(new Item(null, owner, "item", "some item", true, new ArrayList<>()));
+        itemRequest = em.persist(new ItemRequest(null, "request", booker, new ArrayList<>(), Instant.now()));
+        em.persist(new Booking(null, NOW.minusDays(1), NOW.plusDays(1), item, booker, BookingStatus.APPROVED));
+        em.flush();
+        em.clear();
+
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByFilterForBooker() {
+        bookingRepository.findByFilter(filter(BookingRole.BOOKER, "CURRENT,WAITING").build(),
+                BookingCursor.FIRST, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void findByFilterForOwner() {
+        bookingRepository.findByFilter(filter(BookingRole.OWNER, "PAST,FUTURE").build(),
+                BookingCursor.FIRST, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void existsByItemAndBookerAndStatusAndEndBefore() {
+        bookingRepository.existsByItemAndBookerAndStatusAndEndBefore(item, booker, BookingStatus.APPROVED, NOW);
+        assertNoTableScans();
+    }
+
+    @Test
+    void findIntervals() {
+        bookingRepository.findIntervals(List.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW, 0, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void findAllByOwnerWithComments() {
+        itemRepository.findAllByOwnerWithComments(owner);
+        assertNoTableScans();
+    }
+
+    @Test
+    void findAllWithCommentsByIds() {
+        itemRepository.findAllWithCommentsByIds(List.of(item.getId()));
+        assertNoTableScans();
+    }
+
+    @Test
+    void findSearchEntries() {
+        itemRepository.findSearchEntries(0, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void getLastAndNextBookingDate() {
+        itemRepository.getLastAndNextBookingDate(owner, NOW);
+        assertNoTableScans();
+    }
+
+    @Test
+    void findAllSummariesByOwner() {
+        summaryRepository.findAllByOwner(owner);
+        assertNoTableScans();
+    }
+
+    @Test
+    void computeDates() {
+        summaryRepository.computeDates(List.of(item.getId()), NOW);
+        assertNoTableScans();
+    }
+
+    @Test
+    void findStaleItemIds() {
+        summaryRepository.findStaleItemIds(NOW, 0, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void findItemIdsWithoutSummary() {
+        summaryRepository.findItemIdsWithoutSummary(0, Limit.of(10));
+        assertNoTableScans();
+    }
+
+    @Test
+    void findAllByRequesterWithItems() {
+        itemRequestRepository.findAllByRequesterWithItems(booker);
+        assertNoTableScans();
+    }
+
+    @Test
+    void findByIdWithItems() {
+        itemRequestRepository.findByIdWithItems(itemRequest.getId());
+        assertNoTableScans();
+    }
+
+    private void assertNoTableScans() {
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty());
+
+        for (String sql : statements) {
+            String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+            assertFalse(plan.contains(TABLE_SCAN), () -> "query reads a whole table:\n" + plan);
+        }
+    }
+
+    private BookingFilter.BookingFilterBuilder filter(BookingRole role, String states) {
+        return BookingFilter.builder()
+                .role(role)
+                .userId(role == BookingRole.OWNER ? owner.getId() : booker.getId())
+                .states(FilterBookingState.parse(states))
+                .now(NOW);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
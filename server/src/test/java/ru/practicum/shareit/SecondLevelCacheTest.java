@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.itemRequest.ItemRequest;
+import ru.practicum.shareit.itemRequest.ItemRequestMapperImpl;
+import ru.practicum.shareit.itemRequest.ItemRequestRepository;
+import ru.practicum.shareit.itemRequest.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет, что вещь с комментариями и их авторами повторно читается из кэша второго уровня,
+ * а новый комментарий сбрасывает закэшированную коллекцию. Вещь-ответ сбрасывает только свой запрос.
+ * Кэш отдает только записи, сделанные до начала транзакции, поэтому каждый шаг - отдельная транзакция.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ItemRequestService.class, ItemRequestMapperImpl.class, UserService.class, UserMapperImpl.class})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private long itemId;
+
+    @BeforeEach
+    void setup() {
+        tx.executeWithoutResult(status -> {
+            owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+            User author = userRepository.save(new User(null, "author", "author@mail.ru"));
+            Item item = itemRepository.save(new Item(null, owner, "item", "some item", true, new ArrayList<>()));
+            commentRepository.save(new Comment(null, "comment", author, item, Instant.now()));
+            itemId = item.getId();
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            commentRepository.deleteAll();
+            itemRepository.deleteAll();
+            itemRequestRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void givenLoadedItem_whenLoadAgainInNewTransaction_gotNoStatements() {
+        loadItemWithComments();
+        statistics.clear();
+
+        int comments = loadItemWithComments();
+
+        assertEquals(1, comments);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        // вещь, коллекция комментариев, комментарий и его автор
+        assertEquals(4, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void givenCachedComments_whenCommentAdded_gotCollectionReloaded() {
+        loadItemWithComments();
+
+        tx.executeWithoutResult(status -> {
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            Comment comment = new Comment(null, "another", owner, item, Instant.now());
+            item.getComments().add(comment);
+            commentRepository.save(comment);
+        });
+
+        assertEquals(2, loadItemWithComments());
+    }
+
+    @Test
+    void givenLoadedUser_whenGetByIdInNewTransaction_gotNoStatements() {
+        tx.execute(status -> userService.getById(owner.getId()));
+        statistics.clear();
+
+        User user = tx.execute(status -> userService.getById(owner.getId()));
+
+        assertEquals("owner", user.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenCachedRequests_whenItemAnswersOne_gotOnlyItEvicted() {
+        long answeredId = createRequest("answered");
+        long otherId = createRequest("other");
+        loadRequestItems(answeredId);
+        loadRequestItems(otherId);
+
+        tx.executeWithoutResult(status -> {
+            Item answer = new Item(null, owner, "answer", "some answer", true, new ArrayList<>());
+            answer.setItemRequest(itemRequestRepository.findById(answeredId).orElseThrow());
+            itemRepository.save(answer);
+            itemRequestService.onItemChanged(answer);
+        });
+        statistics.clear();
+
+        // другой запрос и его вещи по-прежнему в кэше
+        assertEquals(0, loadRequestItems(otherId));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // у запроса-адресата поднялась версия, а коллекция вещей перечитана из базы
+        assertEquals(1, loadRequestItems(answeredId));
+        long version = tx.execute(status -> itemRequestRepository.findById(answeredId).orElseThrow().getVersion());
+        assertEquals(1, version);
+    }
+
+    private long createRequest(String description) {
+        return tx.execute(status -> itemRequestRepository.save(
+                new ItemRequest(null, description, owner, new ArrayList<>(), Instant.now())).getId());
+    }
+
+    private int loadRequestItems(long requestId) {
+        return tx.execute(status -> itemRequestRepository.findById(requestId).orElseThrow().getItems().size());
+    }
+
+    private int loadItemWithComments() {
+        return tx.execute(status -> {
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            item.getComments().forEach(comment -> comment.getAuthor().getName());
+            return item.getComments().size();
+        });
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapperImpl;
@@ -25,6 +27,7 @@ import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -64,6 +67,39 @@ class BookingControllerTest {
         booking = new Booking(1L, start, end, item, booker, BookingStatus.WAITING);
     }
 
+    @Nested
+    class DecideBookings {
+
+        @Test
+        void givenDecisions_whenDecide_gotResultPerBooking() throws Exception {
+            List<BookingDecision> decisions = List.of(new BookingDecision(1L, true), new BookingDecision(2L, false));
+
+            Mockito
+                    .when(bookingService.decideBookings(decisions, owner.getId()))
+                    .thenReturn(List.of(new BookingDecisionResult(1L, true, BookingStatus.APPROVED),
+                            new BookingDecisionResult(2L, false, null)));
+
+            mvc.perform(patch("/bookings/owner/decisions")
+                            .content(mapper.writeValueAsString(decisions))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status", equalTo("APPROVED")))
+                    .andExpect(jsonPath("$[1].applied", equalTo(false)));
+        }
+
+        @Test
+        void givenDecisionWithoutApproved_whenDecide_gotValidationException() throws Exception {
+            mvc.perform(patch("/bookings/owner/decisions")
+                            .content("[{\"bookingId\": 1}]")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     class CreateBooking {
 
@@ -213,8 +249,8 @@ class BookingControllerTest {
         LocalDateTime now = LocalDateTime.parse("2025-01-01T00:00:00");
 
         Mockito
-                .when(bookingService.getCurrentUserBookings("WAITING", owner.getId(), now))
-                .thenReturn(List.of(booking));
+                .when(bookingService.getCurrentUserBookings("WAITING", owner.getId(), now, 100, null))
+                .thenReturn(new BookingPage(List.of(booking), null));
 
         mvc.perform(get("/bookings?state=WAITING&now=2025-01-01T00:00:00")
                         .accept(MediaType.APPLICATION_JSON)
@@ -241,8 +277,8 @@ class BookingControllerTest {
         LocalDateTime now = LocalDateTime.parse("2025-01-01T00:00:00");
 
         Mockito
-                .when(bookingService.getOwnerBookings("WAITING", owner.getId(), now))
-                .thenReturn(List.of(booking));
+                .when(bookingService.getOwnerBookings("WAITING", owner.getId(), now, 100, null))
+                .thenReturn(new BookingPage(List.of(booking), null));
 
         mvc.perform(get("/bookings/owner?state=WAITING&now=2025-01-01T00:00:00")
                         .accept(MediaType.APPLICATION_JSON)
@@ -261,4 +297,30 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.email", equalTo(booker.getEmail())))
                 .andExpect(jsonPath("$[0].status", equalTo(booking.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenNextPage_whenGetOwnerBookings_gotNextCursorHeader() throws Exception {
+
+        LocalDateTime now = LocalDateTime.parse("2025-01-01T00:00:00");
+
+        Mockito
+                .when(bookingService.getOwnerBookings("ALL", owner.getId(), now, 1, null))
+                .thenReturn(new BookingPage(List.of(booking), "cursor"));
+
+        mvc.perform(get("/bookings/owner?now=2025-01-01T00:00:00&limit=1")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "cursor"))
+                .andExpect(jsonPath("$[0].id", equalTo(booking.getId()), Long.class));
+    }
+
+    @Test
+    void givenTooLargeLimit_whenGetCurrentUserBookings_gotBadRequest() throws Exception {
+
+        mvc.perform(get("/bookings?limit=1001")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isBadRequest());
+    }
+}
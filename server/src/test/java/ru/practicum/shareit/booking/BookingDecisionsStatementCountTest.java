@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingService.class, BookingIntervalIndex.class, BookingMapperImpl.class, ItemMapperImpl.class,
+        UserMapperImpl.class})
+class BookingDecisionsStatementCountTest {
+
+    private static final int BOOKINGS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ItemService itemService;
+
+    @MockBean
+    private ItemBookingSummaryService bookingSummaryService;
+
+    private User owner;
+    private Item item;
+    private List<Booking> bookings;
+    private Booking foreignBooking;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        User other = em.persist(new User(null, "other", "other@mail.ru"));
+        User booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        item = em.persist(new Item(null, owner, "item", "some item", true, new ArrayList<>()));
+        Item foreignItem = em.persist(new Item(null, other, "foreign", "foreign item", true, new ArrayList<>()));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = em.persist(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, booker, BookingStatus.WAITING));
+            intervalIndex.add(booking);
+            bookings.add(booking);
+        }
+        foreignBooking = em.persist(new Booking(null, start, start.plusHours(1),
+                foreignItem, booker, BookingStatus.WAITING));
+        bookings.getLast().setStatus(BookingStatus.APPROVED);
+        em.flush();
+        em.clear();
+
+        Mockito.when(userService.getById(owner.getId())).thenReturn(owner);
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void givenOwnerDecisions_whenDecide_gotSingleUpdate() {
+        List<BookingDecision> decisions = IntStream.range(0, BOOKINGS - 1)
+                .mapToObj(i -> new BookingDecision(bookings.get(i).getId(), i % 2 == 0))
+                .toList();
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(decisions, owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+        em.clear();
+
+        // выборка бронирований владельца и одно обновление вместо чтения и сохранения каждого
+        assertEquals(2, statements);
+        assertEquals(BOOKINGS - 1, results.size());
+        assertTrue(results.stream().allMatch(BookingDecisionResult::isApplied));
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, bookings.get(0).getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, bookings.get(1).getId()).getStatus());
+    }
+
+    @Test
+    void givenRejection_whenTransactionRolledBack_gotIntervalKept() {
+        Booking booking = bookings.getFirst();
+
+        bookingService.decideBookings(List.of(new BookingDecision(booking.getId(), false)), owner.getId());
+        TestTransaction.end();
+
+        assertTrue(intervalIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void givenForeignOrDecidedBooking_whenDecide_gotItSkipped() {
+        List<BookingDecision> decisions = List.of(
+                new BookingDecision(bookings.getFirst().getId(), false),
+                new BookingDecision(foreignBooking.getId(), false),
+                new BookingDecision(bookings.getLast().getId(), false),
+                new BookingDecision(-1L, false));
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(decisions, owner.getId());
+        em.clear();
+
+        assertEquals(List.of(
+                new BookingDecisionResult(bookings.getFirst().getId(), true, BookingStatus.REJECTED),
+                new BookingDecisionResult(foreignBooking.getId(), false, null),
+                new BookingDecisionResult(bookings.getLast().getId(), false, null),
+                new BookingDecisionResult(-1L, false, null)), results);
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, bookings.getLast().getId()).getStatus());
+        assertEquals(1, em.find(Booking.class, bookings.getFirst().getId()).getVersion());
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, bookings.getFirst().getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, em.find(Booking.class, foreignBooking.getId()).getStatus());
+    }
+
+    @Test
+    void givenWaitingBooking_whenApprove_gotConditionalUpdateWithoutPriorSelect() {
+        long bookingId = bookings.getFirst().getId();
+
+        Booking booking = bookingService.approveBooking(bookingId, true, owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        // условное обновление, затем бронирование и вещь для ответа; владелец берется из кэша второго уровня
+        assertEquals(3, statements);
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(1, booking.getVersion());
+    }
+
+    @Test
+    void givenApprovedBooking_whenApproveAgain_gotNoChange() {
+        long bookingId = bookings.getFirst().getId();
+        bookingService.approveBooking(bookingId, true, owner.getId());
+        em.clear();
+
+        Booking booking = bookingService.approveBooking(bookingId, true, owner.getId());
+
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(1, booking.getVersion());
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(bookingId, false, owner.getId()));
+    }
+
+    @Test
+    void givenStaleBooking_whenSave_gotOptimisticLockingFailure() {
+        Booking stale = em.find(Booking.class, bookings.getFirst().getId());
+        em.detach(stale);
+        bookingService.approveBooking(stale.getId(), true, owner.getId());
+
+        stale.setStatus(BookingStatus.REJECTED);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bookingRepository.saveAndFlush(stale));
+    }
+}
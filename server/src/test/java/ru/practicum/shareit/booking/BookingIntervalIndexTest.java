@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex intervalIndex;
+
+    @BeforeEach
+    void setup() {
+        intervalIndex = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @Test
+    void givenItemLocked_whenLockOtherItem_gotNoWaiting() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> intervalIndex.withItemLock(1L, () -> {
+            locked.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // при 64 полосах вещи 1 и 65 делили одну блокировку
+        assertEquals("done", CompletableFuture
+                .supplyAsync(() -> intervalIndex.withItemsLock(List.of(65L, 2L), () -> "done"))
+                .get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void givenNestedLocks_whenReleased_gotNoLocksLeft() {
+        intervalIndex.withItemsLock(List.of(3L, 1L, 3L), () ->
+                intervalIndex.withItemLock(1L, () -> {
+                    assertEquals(2, intervalIndex.lockedItems());
+                    return null;
+                }));
+
+        assertEquals(0, intervalIndex.lockedItems());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
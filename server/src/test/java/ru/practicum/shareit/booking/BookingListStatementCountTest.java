@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.itemRequest.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingService.class, ItemService.class, BookingIntervalIndex.class,
+        BookingMapperImpl.class, ItemMapperImpl.class, UserMapperImpl.class})
+class BookingListStatementCountTest {
+
+    private static final int BOOKINGS = 30;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingMapper bookingMapper;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ItemRequestService itemRequestService;
+
+    @MockBean
+    private ItemSearchIndex searchIndex;
+
+    @MockBean
+    private ItemBookingSummaryService bookingSummaryService;
+
+    private User owner;
+    private User booker;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+
+        LocalDateTime start = LocalDateTime.parse("2030-01-01T00:00:00");
+        for (int i = 0; i < BOOKINGS; i++) {
+            // у каждой вещи свой автор комментария, чтобы авторы не брались из уже загруженных
+            User author = em.persist(new User(null, "author" + i, "author" + i + "@mail.ru"));
+            Item item = em.persist(new Item(null, owner, "item" + i, "some item " + i, true, new ArrayList<>()));
+            em.persist(new Comment(null, "comment " + i, author, item, Instant.now()));
+            em.persist(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, booker, BookingStatus.APPROVED));
+        }
+        em.flush();
+        em.clear();
+
+        Mockito.when(userService.getById(owner.getId())).thenReturn(owner);
+        Mockito.when(userService.getById(booker.getId())).thenReturn(booker);
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, BOOKINGS})
+    void givenPageSize_whenGetOwnerBookings_gotConstantStatementCount(int pageSize) {
+        BookingPage page = bookingService.getOwnerBookings("ALL", owner.getId(), LocalDateTime.now(), pageSize, null);
+        List<BookingDto> dtos = bookingMapper.toDto(page.getBookings());
+
+        assertEquals(pageSize, dtos.size());
+        assertEquals("author0", dtos.getFirst().getItem().getComments().getFirst().getAuthorName());
+        // страница с вещами и арендаторами и комментарии с авторами
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, BOOKINGS})
+    void givenPageSize_whenGetCurrentUserBookings_gotConstantStatementCount(int pageSize) {
+        BookingPage page = bookingService.getCurrentUserBookings("ALL", booker.getId(), LocalDateTime.now(), pageSize, null);
+        List<BookingDto> dtos = bookingMapper.toDto(page.getBookings());
+
+        assertEquals(pageSize, dtos.size());
+        assertEquals(booker.getName(), dtos.getLast().getBooker().getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -7,12 +7,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
 import ru.practicum.shareit.item.ItemMapperImpl;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
@@ -21,6 +29,7 @@ import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,8 +37,14 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
 
+    private static final int PAGE_SIZE = 100;
+    private static final Limit PAGE_LIMIT = Limit.of(PAGE_SIZE + 1);
+    private static final BookingCursor FIRST = BookingCursor.FIRST;
+
     private BookingService bookingService;
 
+    private BookingIntervalIndex intervalIndex;
+
     @Mock
     private UserService userService;
 
@@ -39,6 +54,12 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private User user;
     private User owner;
     private Item item;
@@ -47,7 +68,9 @@ class BookingServiceTest {
     @BeforeEach
     void setup() {
         BookingMapper bookingMapper = new BookingMapperImpl(new ItemMapperImpl(), new UserMapperImpl());
-        bookingService = new BookingService(userService, itemService, bookingRepository, bookingMapper);
+        intervalIndex = new BookingIntervalIndex(bookingRepository);
+        bookingService = new BookingService(userService, itemService, bookingRepository, bookingMapper,
+                intervalIndex, bookingSummaryService, new TransactionTemplate(transactionManager));
 
         user = new User(1L, "user", "user@mail.ru");
         owner = new User(2L, "owner", "owner@mail.ru");
@@ -118,8 +141,147 @@ class BookingServiceTest {
             assertEquals(booking.getItem(), item);
             assertEquals(booking.getBooker(), user);
             assertEquals(booking.getStatus(), BookingStatus.WAITING);
+            Mockito.verify(bookingSummaryService).onBookingCreated(booking);
+        }
+
+        @Test
+        void givenOverlappingActiveBooking_whenCreate_gotConflictException() {
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            intervalIndex.add(item.getId(), 10L, start, start.plusDays(2));
+
+            CreateBookingRequest request = new CreateBookingRequest(item.getId(), start.plusDays(1), start.plusDays(3));
+
+            assertThrows(ConflictException.class, () -> bookingService.createBooking(request, user.getId()));
+            Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
+        }
+
+        @Test
+        void givenAdjacentBooking_whenCreate_gotBooking() {
+
+            mockBookingSave();
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            intervalIndex.add(item.getId(), 10L, start, start.plusDays(2));
+
+            CreateBookingRequest request = new CreateBookingRequest(item.getId(), start.plusDays(2), start.plusDays(3));
+
+            Booking booking = bookingService.createBooking(request, user.getId());
+
+            assertEquals(1L, booking.getId());
+            assertTrue(intervalIndex.overlaps(item.getId(), start.plusDays(2), start.plusDays(3)));
+        }
+
+        @Test
+        void givenCreatedBooking_whenCreateSamePeriod_gotConflictException() {
+
+            mockBookingSave();
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            CreateBookingRequest request = new CreateBookingRequest(item.getId(), start, start.plusDays(1));
+
+            bookingService.createBooking(request, user.getId());
+
+            assertThrows(ConflictException.class, () -> bookingService.createBooking(request, user.getId()));
+        }
+
+        @Test
+        void givenSummaryUpdateFailed_whenCreate_gotNothingIndexed() {
+
+            mockBookingSave();
+            Mockito
+                    .doThrow(new IllegalStateException("summary update failed"))
+                    .when(bookingSummaryService).onBookingCreated(Mockito.any(Booking.class));
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            CreateBookingRequest request = new CreateBookingRequest(item.getId(), start, start.plusDays(1));
+
+            assertThrows(IllegalStateException.class, () -> bookingService.createBooking(request, user.getId()));
+            Mockito.verify(transactionManager).rollback(Mockito.any());
+            Mockito.verify(transactionManager, Mockito.never()).commit(Mockito.any());
+            assertFalse(intervalIndex.overlaps(item.getId(), start, start.plusDays(1)));
+        }
+    }
+
+    @Nested
+    class CreateBookings {
+
+        private Item otherItem;
+
+        @BeforeEach
+        void setup() {
+            otherItem = new Item(2L, owner, "other item", "some other item", true, List.of());
+            mockUserById(user);
+            Mockito
+                    .when(itemService.getByIds(Mockito.anyCollection()))
+                    .thenReturn(Map.of(item.getId(), item, otherItem.getId(), otherItem));
+        }
+
+        @Test
+        void givenValidRequests_whenCreate_gotBookingsSavedAtOnce() {
+
+            mockBookingSaveAll();
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<CreateBookingRequest> requests = List.of(
+                    new CreateBookingRequest(item.getId(), start, start.plusDays(1)),
+                    new CreateBookingRequest(item.getId(), start.plusDays(1), start.plusDays(2)),
+                    new CreateBookingRequest(otherItem.getId(), start, start.plusDays(1)));
+
+            List<Booking> bookings = bookingService.createBookings(requests, user.getId());
+
+            assertEquals(3, bookings.size());
+            assertEquals(otherItem, bookings.getLast().getItem());
+            assertTrue(bookings.stream().allMatch(booking -> booking.getBooker().equals(user)));
+            assertTrue(intervalIndex.overlaps(otherItem.getId(), start, start.plusDays(1)));
+            Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
+            Mockito.verify(bookingSummaryService).onBookingsCreated(bookings);
         }
 
+        @Test
+        void givenSummaryUpdateFailed_whenCreate_gotNothingIndexed() {
+
+            mockBookingSaveAll();
+            Mockito
+                    .doThrow(new IllegalStateException("summary update failed"))
+                    .when(bookingSummaryService).onBookingsCreated(Mockito.anyList());
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<CreateBookingRequest> requests = List.of(
+                    new CreateBookingRequest(item.getId(), start, start.plusDays(1)));
+
+            assertThrows(IllegalStateException.class, () -> bookingService.createBookings(requests, user.getId()));
+            Mockito.verify(transactionManager).rollback(Mockito.any());
+            assertFalse(intervalIndex.overlaps(item.getId(), start, start.plusDays(1)));
+        }
+
+        @Test
+        void givenOverlappingRequests_whenCreate_gotConflictException() {
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<CreateBookingRequest> requests = List.of(
+                    new CreateBookingRequest(item.getId(), start.plusDays(1), start.plusDays(3)),
+                    new CreateBookingRequest(otherItem.getId(), start, start.plusDays(3)),
+                    new CreateBookingRequest(item.getId(), start, start.plusDays(2)));
+
+            assertThrows(ConflictException.class, () -> bookingService.createBookings(requests, user.getId()));
+            Mockito.verify(bookingRepository, Mockito.never()).saveAll(Mockito.anyList());
+        }
+
+        @Test
+        void givenRequestOverlappingExistingBooking_whenCreate_gotNothingSaved() {
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            intervalIndex.add(otherItem.getId(), 10L, start, start.plusDays(2));
+
+            List<CreateBookingRequest> requests = List.of(
+                    new CreateBookingRequest(item.getId(), start, start.plusDays(1)),
+                    new CreateBookingRequest(otherItem.getId(), start.plusDays(1), start.plusDays(3)));
+
+            assertThrows(ConflictException.class, () -> bookingService.createBookings(requests, user.getId()));
+            Mockito.verify(bookingRepository, Mockito.never()).saveAll(Mockito.anyList());
+            assertFalse(intervalIndex.overlaps(item.getId(), start, start.plusDays(1)));
+        }
     }
 
     @Nested
@@ -148,25 +310,113 @@ class BookingServiceTest {
         @Test
         void givenApprovedByValidUser_whenApprove_gotApproved() {
 
+            mockTransition(savedBooking, BookingStatus.APPROVED);
             mockBookingById(savedBooking);
 
-            bookingService.approveBooking(savedBooking.getId(), true, owner.getId());
-
-            Booking actualBooking = bookingService.findById(savedBooking.getId());
+            Booking actualBooking = bookingService.approveBooking(savedBooking.getId(), true, owner.getId());
 
             assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+            Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
         }
 
         @Test
         void givenRejectedByValidUser_whenApprove_gotApproved() {
 
+            mockTransition(savedBooking, BookingStatus.REJECTED);
+            mockBookingById(savedBooking);
+
+            Booking actualBooking = bookingService.approveBooking(savedBooking.getId(), false, owner.getId());
+
+            assertEquals(BookingStatus.REJECTED, actualBooking.getStatus());
+        }
+
+        @Test
+        void givenApprovedBooking_whenApproveAgain_gotBookingUnchanged() {
+
+            savedBooking.setStatus(BookingStatus.APPROVED);
+            mockBookingById(savedBooking);
+
+            Booking actualBooking = bookingService.approveBooking(savedBooking.getId(), true, owner.getId());
+
+            assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+        }
+
+        @Test
+        void givenApprovedBooking_whenReject_gotConflictException() {
+
+            savedBooking.setStatus(BookingStatus.APPROVED);
+            mockBookingById(savedBooking);
+
+            assertThrows(ConflictException.class, () ->
+                    bookingService.approveBooking(savedBooking.getId(), false, owner.getId()));
+        }
+
+        @Test
+        void givenRejectedBooking_whenCheckOverlap_gotPeriodReleased() {
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            savedBooking.setStart(start);
+            savedBooking.setEnd(start.plusDays(1));
+            intervalIndex.add(savedBooking);
+            mockTransition(savedBooking, BookingStatus.REJECTED);
             mockBookingById(savedBooking);
 
             bookingService.approveBooking(savedBooking.getId(), false, owner.getId());
 
-            Booking actualBooking = bookingService.findById(savedBooking.getId());
+            assertFalse(intervalIndex.overlaps(item.getId(), start, start.plusDays(1)));
+        }
+    }
+
+    @Nested
+    class DecideBookings {
+
+        @Test
+        void givenSameBookingTwice_whenDecide_gotBadRequestException() {
 
-            assertEquals(BookingStatus.REJECTED, actualBooking.getStatus());
+            List<BookingDecision> decisions = List.of(
+                    new BookingDecision(savedBooking.getId(), true),
+                    new BookingDecision(savedBooking.getId(), false));
+
+            assertThrows(BadRequestException.class, () -> bookingService.decideBookings(decisions, owner.getId()));
+            Mockito.verifyNoInteractions(bookingRepository);
+        }
+
+        @Test
+        void givenOwnedBookings_whenDecide_gotIndexUpdated() {
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            intervalIndex.add(item.getId(), savedBooking.getId(), start, start.plusDays(1));
+            mockUserById(owner);
+            BookingInterval interval = Mockito.mock(BookingInterval.class);
+            Mockito.when(interval.getId()).thenReturn(savedBooking.getId());
+            Mockito.when(interval.getItemId()).thenReturn(item.getId());
+            Mockito
+                    .when(bookingRepository.findIntervalsByIdsAndOwnerForUpdate(Mockito.anyCollection(),
+                            Mockito.eq(List.of(BookingStatus.WAITING)), Mockito.eq(owner)))
+                    .thenReturn(List.of(interval));
+
+            List<BookingDecisionResult> results = bookingService.decideBookings(
+                    List.of(new BookingDecision(savedBooking.getId(), false)), owner.getId());
+
+            assertEquals(BookingStatus.REJECTED, results.getFirst().getStatus());
+            assertFalse(intervalIndex.overlaps(item.getId(), start, start.plusDays(1)));
+        }
+
+        @Test
+        void givenNoOwnedBookings_whenDecide_gotNothingUpdated() {
+
+            mockUserById(user);
+            Mockito
+                    .when(bookingRepository.findIntervalsByIdsAndOwnerForUpdate(Mockito.anyCollection(),
+                            Mockito.eq(List.of(BookingStatus.WAITING)), Mockito.eq(user)))
+                    .thenReturn(List.of());
+
+            List<BookingDecisionResult> results = bookingService.decideBookings(
+                    List.of(new BookingDecision(savedBooking.getId(), true)), user.getId());
+
+            assertFalse(results.getFirst().isApplied());
+            Mockito.verify(bookingRepository, Mockito.never())
+                    .decideByOwner(Mockito.anyCollection(), Mockito.anyCollection(), Mockito.any(User.class));
         }
     }
 
@@ -224,10 +474,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetAll_gotAll() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerOrderByStartAsc(user))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "ALL", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("ALL", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("ALL", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -236,10 +486,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetCurrent_gotCurrent() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerAndStartBeforeAndEndAfterOrderByStartAsc(user, now, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "CURRENT", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("CURRENT", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("CURRENT", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -248,10 +498,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetPast_gotPast() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerAndEndBeforeOrderByStartAsc(user, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "PAST", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("PAST", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("PAST", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -260,10 +510,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetFuture_gotFuture() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerAndStartAfterOrderByStartAsc(user, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "FUTURE", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("FUTURE", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("FUTURE", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -272,10 +522,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetWaiting_gotWaiting() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerAndStatusOrderByStartAsc(user, BookingStatus.WAITING))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "WAITING", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("WAITING", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("WAITING", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -284,13 +534,93 @@ class BookingServiceTest {
         void givenUserBookings_whenGetRejected_gotRejected() {
 
             Mockito
-                    .when(bookingRepository.findAllByBookerAndStatusOrderByStartAsc(user, BookingStatus.REJECTED))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "REJECTED", now), FIRST, PAGE_LIMIT))
+                    .thenReturn(List.of(savedBooking));
+
+            List<Booking> bookings = bookingService.getCurrentUserBookings("REJECTED", user.getId(), now, PAGE_SIZE, null).getBookings();
+
+            assertEquals(1, bookings.size());
+        }
+
+        @Test
+        void givenCombinedStates_whenGet_gotSingleFilterWithAllStates() {
+
+            Mockito
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "CURRENT,WAITING", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getCurrentUserBookings("REJECTED", user.getId(), now);
+            List<Booking> bookings = bookingService.getCurrentUserBookings("CURRENT,WAITING", user.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
+
+        @Test
+        void givenUnknownState_whenGet_gotBadRequest() {
+            assertThrows(BadRequestException.class,
+                    () -> bookingService.getCurrentUserBookings("CURRENT,UNKNOWN", user.getId(), now, PAGE_SIZE, null));
+        }
+    }
+
+    @Nested
+    class Paging {
+
+        LocalDateTime now;
+        Booking nextBooking;
+
+        @BeforeEach
+        void setup() {
+            mockUserById(user);
+            now = LocalDateTime.now();
+            nextBooking = new Booking(2L, LocalDateTime.parse("2025-03-03T00:00:00"),
+                    LocalDateTime.parse("2026-03-03T00:00:00"), item, user, BookingStatus.WAITING);
+        }
+
+        @Test
+        void givenMoreBookingsThanLimit_whenGet_gotPageWithNextCursor() {
+
+            Mockito
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "ALL", now), FIRST, Limit.of(2)))
+                    .thenReturn(List.of(savedBooking, nextBooking));
+
+            BookingPage page = bookingService.getCurrentUserBookings("ALL", user.getId(), now, 1, null);
+
+            assertIterableEquals(List.of(savedBooking), page.getBookings());
+            assertEquals(BookingCursor.after(savedBooking), BookingCursor.decode(page.getNextCursor()));
+        }
+
+        @Test
+        void givenLastPage_whenGet_gotNoNextCursor() {
+
+            Mockito
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "ALL", now), FIRST, Limit.of(2)))
+                    .thenReturn(List.of(savedBooking));
+
+            BookingPage page = bookingService.getCurrentUserBookings("ALL", user.getId(), now, 1, null);
+
+            assertIterableEquals(List.of(savedBooking), page.getBookings());
+            assertNull(page.getNextCursor());
+        }
+
+        @Test
+        void givenCursor_whenGet_gotBookingsAfterCursor() {
+
+            String after = BookingCursor.after(savedBooking).encode();
+
+            Mockito
+                    .when(bookingRepository.findByFilter(filter(BookingRole.BOOKER, user, "ALL", now), BookingCursor.after(savedBooking), Limit.of(2)))
+                    .thenReturn(List.of(nextBooking));
+
+            BookingPage page = bookingService.getCurrentUserBookings("ALL", user.getId(), now, 1, after);
+
+            assertIterableEquals(List.of(nextBooking), page.getBookings());
+            assertNull(page.getNextCursor());
+        }
+
+        @Test
+        void givenMalformedCursor_whenGet_gotBadRequest() {
+            assertThrows(BadRequestException.class,
+                    () -> bookingService.getCurrentUserBookings("ALL", user.getId(), now, 1, "not a cursor"));
+        }
     }
 
     @Nested
@@ -307,10 +637,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetAll_gotAll() {
 
             Mockito
-                    .when(bookingRepository.findAllByOwnerOrderByStartAsc(owner))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "ALL", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("ALL", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("ALL", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -319,10 +649,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetCurrent_gotCurrent() {
 
             Mockito
-                    .when(bookingRepository.findAllCurrentByOwnerOrderByStartAsc(owner, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "CURRENT", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("CURRENT", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("CURRENT", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -331,10 +661,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetPast_gotPast() {
 
             Mockito
-                    .when(bookingRepository.findAllPastByOwnerOrderByStartAsc(owner, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "PAST", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("PAST", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("PAST", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -343,10 +673,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetFuture_gotFuture() {
 
             Mockito
-                    .when(bookingRepository.findAllByOwnerOrderByStartAsc(owner, now))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "FUTURE", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("FUTURE", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("FUTURE", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -355,10 +685,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetWaiting_gotWaiting() {
 
             Mockito
-                    .when(bookingRepository.findAllByOwnerAndStatusOrderByStartAsc(owner, BookingStatus.WAITING))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "WAITING", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("WAITING", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("WAITING", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -367,10 +697,10 @@ class BookingServiceTest {
         void givenUserBookings_whenGetRejected_gotRejected() {
 
             Mockito
-                    .when(bookingRepository.findAllByOwnerAndStatusOrderByStartAsc(owner, BookingStatus.REJECTED))
+                    .when(bookingRepository.findByFilter(filter(BookingRole.OWNER, owner, "REJECTED", now), FIRST, PAGE_LIMIT))
                     .thenReturn(List.of(savedBooking));
 
-            List<Booking> bookings = bookingService.getOwnerBookings("REJECTED", owner.getId(), now);
+            List<Booking> bookings = bookingService.getOwnerBookings("REJECTED", owner.getId(), now, PAGE_SIZE, null).getBookings();
 
             assertEquals(1, bookings.size());
         }
@@ -388,6 +718,15 @@ class BookingServiceTest {
         assertTrue(bookingService.existPastApprovedItemBookingByUser(item, user, now));
     }
 
+    private BookingFilter filter(BookingRole role, User user, String states, LocalDateTime now) {
+        return BookingFilter.builder()
+                .role(role)
+                .userId(user.getId())
+                .states(FilterBookingState.parse(states))
+                .now(now)
+                .build();
+    }
+
     private void mockUserById(User user) {
         Mockito
                 .when(userService.getById(user.getId()))
@@ -406,6 +745,28 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(booking));
     }
 
+    // условное обновление в базе: статус меняется, только если переход допустим
+    private void mockTransition(Booking booking, BookingStatus target) {
+        Mockito
+                .when(bookingRepository.transition(booking.getId(), owner.getId(), target.sources(), target))
+                .thenAnswer(invocation -> {
+                    booking.setStatus(target);
+                    return 1;
+                });
+    }
+
+    private void mockBookingSaveAll() {
+        Mockito
+                .when(bookingRepository.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Booking> bookings = invocation.getArgument(0);
+                    for (int i = 0; i < bookings.size(); i++) {
+                        bookings.get(i).setId(i + 1L);
+                    }
+                    return bookings;
+                });
+    }
+
     private void mockBookingSave() {
         Mockito
                 .when(bookingRepository.save(Mockito.any(Booking.class)))
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.FilterBookingState;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookingQueryRepositoryImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2025-01-01T12:00:00");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingQueryRepositoryImpl queryRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item otherItem;
+
+    private Booking pastApproved;
+    private Booking currentWaiting;
+    private Booking currentApproved;
+    private Booking futureWaiting;
+    private Booking futureRejected;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        item = em.persist(new Item(null, owner, "item", "some item", true, new ArrayList<>()));
+        otherItem = em.persist(new Item(null, owner, "other", "other item", true, new ArrayList<>()));
+
+        pastApproved = persist(item, NOW.minusDays(5), NOW.minusDays(4), BookingStatus.APPROVED);
+        currentWaiting = persist(item, NOW.minusHours(2), NOW.plusHours(2), BookingStatus.WAITING);
+        currentApproved = persist(otherItem, NOW.minusHours(1), NOW.plusHours(1), BookingStatus.APPROVED);
+        futureWaiting = persist(otherItem, NOW.plusDays(1), NOW.plusDays(2), BookingStatus.WAITING);
+        futureRejected = persist(item, NOW.plusDays(3), NOW.plusDays(4), BookingStatus.REJECTED);
+        em.flush();
+    }
+
+    @Test
+    void givenAllState_whenFindByFilter_gotAllBookingsOrderedByStart() {
+        assertIterableEquals(List.of(pastApproved, currentWaiting, currentApproved, futureWaiting, futureRejected),
+                find(filter(BookingRole.OWNER, "ALL").build()));
+    }
+
+    @Test
+    void givenTimeAndStatusStates_whenFindByFilter_gotBothGroupsApplied() {
+        assertIterableEquals(List.of(currentWaiting),
+                find(filter(BookingRole.BOOKER, "CURRENT,WAITING").build()));
+    }
+
+    @Test
+    void givenSeveralTimeStates_whenFindByFilter_gotAnyOfThem() {
+        assertIterableEquals(List.of(pastApproved, futureWaiting, futureRejected),
+                find(filter(BookingRole.OWNER, "PAST,FUTURE").build()));
+    }
+
+    @Test
+    void givenSeveralStatusStates_whenFindByFilter_gotAnyOfThem() {
+        assertIterableEquals(List.of(currentWaiting, futureWaiting, futureRejected),
+                find(filter(BookingRole.OWNER, "WAITING,REJECTED").build()));
+    }
+
+    @Test
+    void givenOtherUser_whenFindByFilter_gotNothing() {
+        assertTrue(bookingRepository.findByFilter(BookingFilter.builder()
+                        .role(BookingRole.OWNER)
+                        .userId(booker.getId())
+                        .build(), BookingCursor.FIRST, Limit.of(10))
+                .isEmpty());
+    }
+
+    @Test
+    void givenFiltersOfSameShape_whenBuildQuery_gotSameQueryText() {
+        BookingFilter first = filter(BookingRole.OWNER, "CURRENT,WAITING").build();
+        BookingFilter second = BookingFilter.builder()
+                .role(BookingRole.OWNER)
+                .userId(booker.getId())
+                .states(FilterBookingState.parse("WAITING,CURRENT"))
+                .now(NOW.plusDays(10))
+                .build();
+
+        assertEquals(queryRepository.jpqlFor(first, BookingCursor.FIRST), queryRepository.jpqlFor(second, BookingCursor.FIRST));
+        assertNotEquals(queryRepository.jpqlFor(first, BookingCursor.FIRST),
+                queryRepository.jpqlFor(filter(BookingRole.BOOKER, "CURRENT,WAITING").build(), BookingCursor.FIRST));
+    }
+
+    @Test
+    void givenBookingBeforeEpoch_whenFindFirstPage_gotIt() {
+        Booking early = persist(item, LocalDateTime.parse("1960-01-01T00:00:00"),
+                LocalDateTime.parse("1960-01-02T00:00:00"), BookingStatus.APPROVED);
+        em.flush();
+
+        assertEquals(early, find(filter(BookingRole.OWNER, "ALL").build()).getFirst());
+    }
+
+    @Test
+    void givenCursor_whenFindByFilter_gotBookingsAfterIt() {
+        assertIterableEquals(List.of(futureWaiting, futureRejected),
+                bookingRepository.findByFilter(filter(BookingRole.OWNER, "ALL").build(),
+                        BookingCursor.after(currentApproved), Limit.of(10)));
+    }
+
+    @Test
+    void givenNoCursor_whenBuildQuery_gotNoCursorPredicate() {
+        BookingFilter filter = filter(BookingRole.OWNER, "ALL").build();
+
+        assertFalse(queryRepository.jpqlFor(filter, BookingCursor.FIRST).contains(":afterStart"));
+        assertTrue(queryRepository.jpqlFor(filter, BookingCursor.after(pastApproved)).contains(":afterStart"));
+    }
+
+    private List<Booking> find(BookingFilter filter) {
+        return bookingRepository.findByFilter(filter, BookingCursor.FIRST, Limit.of(10));
+    }
+
+    private BookingFilter.BookingFilterBuilder filter(BookingRole role, String states) {
+        return BookingFilter.builder()
+                .role(role)
+                .userId(role == BookingRole.OWNER ? owner.getId() : booker.getId())
+                .states(FilterBookingState.parse(states))
+                .now(NOW);
+    }
+
+    private Booking persist(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return em.persist(new Booking(null, start, end, item, booker, status));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAspectsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "management.observations.annotations.enabled=true")
+@Import({MetricsAspect.class, UserService.class, UserMapperImpl.class})
+@ImportAutoConfiguration({AopAutoConfiguration.class, MetricsAutoConfiguration.class,
+        CompositeMeterRegistryAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+        MetricsAspectsAutoConfiguration.class})
+class MetricsAspectTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry.clear();
+
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        em.persist(new Item(null, owner, "first", "first item", true, new ArrayList<>()));
+        em.persist(new Item(null, owner, "second", "second item", true, new ArrayList<>()));
+        em.flush();
+    }
+
+    @Test
+    void givenQueryMethod_whenCalled_gotRowCountRecorded() {
+        itemRepository.findAllByOwnerWithComments(owner);
+
+        assertEquals(2, rows("ItemRepository", "findAllByOwnerWithComments").totalAmount());
+    }
+
+    @Test
+    void givenInheritedMethod_whenCalled_gotRowCountRecordedForRepositoryInterface() {
+        userRepository.findById(owner.getId());
+        userRepository.findById(-1L);
+
+        assertEquals(2, rows("UserRepository", "findById").count());
+        assertEquals(1, rows("UserRepository", "findById").totalAmount());
+    }
+
+    @Test
+    void givenServiceAndMapperCalls_whenRecorded_gotTimersPerMethod() {
+        userMapper.toDto(userService.getById(owner.getId()));
+
+        assertEquals(1, meterRegistry.get("shareit.service")
+                .tag("class", UserService.class.getName())
+                .tag("method", "getById")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get(MetricsAspect.MAPPER_TIMER)
+                .tag("mapper", "UserMapperImpl")
+                .tag("method", "toDto")
+                .timer()
+                .count());
+    }
+
+    private DistributionSummary rows(String repository, String method) {
+        return meterRegistry.get(MetricsAspect.REPOSITORY_ROWS)
+                .tag("repository", repository)
+                .tag("method", method)
+                .summary();
+    }
+}
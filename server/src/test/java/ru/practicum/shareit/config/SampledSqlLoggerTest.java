@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledSqlLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SampledSqlLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setup() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void givenSampleRate_whenInspect_gotOnlySampledStatementsLoggedAndSqlUnchanged() {
+        Iterator<Double> random = List.of(0.05, 0.5, 0.09).iterator();
+        SampledSqlLogger sqlLogger = new SampledSqlLogger(0.1, random::next);
+
+        assertEquals("select 1", sqlLogger.inspect("select 1"));
+        assertEquals("select 2", sqlLogger.inspect("select 2"));
+        assertEquals("select 3", sqlLogger.inspect("select 3"));
+
+        assertIterableEquals(List.of("sampled sql: select 1", "sampled sql: select 3"),
+                appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    @Test
+    void givenRateOutsideRange_whenCreate_gotException() {
+        assertThrows(IllegalArgumentException.class, () -> new SampledSqlLogger(1.5));
+    }
+}
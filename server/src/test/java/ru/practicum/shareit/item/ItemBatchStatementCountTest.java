@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dto.CreateItemRequest;
+import ru.practicum.shareit.itemRequest.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ItemService.class, ItemBookingSummaryService.class, BookingIntervalIndex.class, ItemMapperImpl.class})
+class ItemBatchStatementCountTest {
+
+    private static final int ITEMS = 100;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ItemRequestService itemRequestService;
+
+    @MockBean
+    private ItemSearchIndex searchIndex;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        em.flush();
+
+        Mockito.when(userService.getById(owner.getId())).thenReturn(owner);
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void givenItems_whenCreateBatch_gotBatchedInserts() {
+        List<CreateItemRequest> requests = IntStream.range(0, ITEMS)
+                .mapToObj(i -> new CreateItemRequest("item" + i, "some item " + i, true, null))
+                .toList();
+
+        List<Item> items = itemService.createItems(requests, owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(ITEMS, items.size());
+        assertEquals(ITEMS, summaryRepository.count());
+        // два блока идентификаторов из последовательности, одна вставка вещей, по которой уходят оба пакета,
+        // и одна вставка дат бронирования; по отдельности было бы больше ста запросов
+        assertEquals(4, statements);
+    }
+}
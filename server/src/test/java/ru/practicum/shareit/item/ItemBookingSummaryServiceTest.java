@@ -0,0 +1,224 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceTest {
+
+    private ItemBookingSummaryService summaryService;
+
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setup() {
+        summaryService = new ItemBookingSummaryService(summaryRepository, new BookingIntervalIndex(bookingRepository));
+
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        booker = new User(2L, "booker", "booker@mail.ru");
+        item = new Item(1L, owner, "item", "some item", true, new ArrayList<>());
+    }
+
+    @Nested
+    class OnBookingCreated {
+
+        @Test
+        void givenValidSummary_whenFutureBookingCreated_gotNextBookingAndValidUntilMoved() {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingSummary summary = ItemBookingSummary.builder()
+                    .itemId(item.getId())
+                    .lastBooking(now.minusDays(10))
+                    .nextBooking(now.plusDays(20))
+                    .validUntil(now.plusDays(10))
+                    .computedAt(now.minusDays(1))
+                    .build();
+
+            Mockito
+                    .when(summaryRepository.findById(item.getId()))
+                    .thenReturn(Optional.of(summary));
+
+            summaryService.onBookingCreated(booking(now.plusDays(2), now.plusDays(3)));
+
+            assertEquals(now.minusDays(10), summary.getLastBooking());
+            assertEquals(now.plusDays(3), summary.getNextBooking());
+            assertEquals(now.plusDays(2), summary.getValidUntil());
+            Mockito.verify(summaryRepository).save(summary);
+            Mockito.verify(summaryRepository, Mockito.never()).computeDates(any(), any());
+        }
+
+        @Test
+        void givenValidSummary_whenLaterBookingCreated_gotNextBookingKept() {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingSummary summary = ItemBookingSummary.builder()
+                    .itemId(item.getId())
+                    .nextBooking(now.plusDays(3))
+                    .validUntil(now.plusDays(2))
+                    .computedAt(now.minusDays(1))
+                    .build();
+
+            Mockito
+                    .when(summaryRepository.findById(item.getId()))
+                    .thenReturn(Optional.of(summary));
+
+            summaryService.onBookingCreated(booking(now.plusDays(5), now.plusDays(6)));
+
+            assertEquals(now.plusDays(3), summary.getNextBooking());
+            assertEquals(now.plusDays(2), summary.getValidUntil());
+        }
+
+        @Test
+        void givenStaleSummary_whenBookingCreated_gotSummaryRecomputed() {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingSummary summary = ItemBookingSummary.builder()
+                    .itemId(item.getId())
+                    .validUntil(now.minusDays(1))
+                    .computedAt(now.minusDays(2))
+                    .build();
+
+            Mockito
+                    .when(summaryRepository.findById(item.getId()))
+                    .thenReturn(Optional.of(summary));
+            Mockito
+                    .when(summaryRepository.computeDates(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                    .thenReturn(List.of(dates(item.getId(), now.minusDays(3), now.plusDays(3), now.plusDays(2))));
+
+            summaryService.onBookingCreated(booking(now.plusDays(2), now.plusDays(3)));
+
+            ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+            Mockito.verify(summaryRepository).save(captor.capture());
+            assertEquals(now.minusDays(3), captor.getValue().getLastBooking());
+            assertEquals(now.plusDays(3), captor.getValue().getNextBooking());
+            assertEquals(now.plusDays(2), captor.getValue().getValidUntil());
+        }
+
+        @Test
+        void givenNoSummary_whenBookingCreated_gotSummaryRecomputed() {
+            LocalDateTime now = LocalDateTime.now();
+
+            Mockito
+                    .when(summaryRepository.findById(item.getId()))
+                    .thenReturn(Optional.empty());
+            Mockito
+                    .when(summaryRepository.computeDates(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                    .thenReturn(List.of(dates(item.getId(), null, now.plusDays(3), now.plusDays(2))));
+
+            summaryService.onBookingCreated(booking(now.plusDays(2), now.plusDays(3)));
+
+            Mockito.verify(summaryRepository).save(any(ItemBookingSummary.class));
+        }
+    }
+
+    @Nested
+    class Sweep {
+
+        @Test
+        void givenStaleSummaries_whenSweep_gotEachRecomputed() {
+            Mockito
+                    .when(summaryRepository.findStaleItemIds(any(LocalDateTime.class), eq(0L), eq(Limit.of(1000))))
+                    .thenReturn(List.of(1L, 2L));
+            Mockito
+                    .when(summaryRepository.computeDates(any(), any(LocalDateTime.class)))
+                    .thenAnswer(invocation -> {
+                        List<Long> ids = invocation.getArgument(0);
+                        return List.of(dates(ids.getFirst(), null, null, null));
+                    });
+
+            summaryService.sweep();
+
+            Mockito.verify(summaryRepository, Mockito.times(2)).save(any(ItemBookingSummary.class));
+        }
+    }
+
+    @Nested
+    class Backfill {
+
+        @Test
+        void givenItemsWithoutSummaries_whenBackfill_gotSummariesCreatedUnlessAlreadyPresent() {
+            Mockito
+                    .when(summaryRepository.findItemIdsWithoutSummary(0L, Limit.of(1000)))
+                    .thenReturn(List.of(1L, 2L));
+            Mockito
+                    .when(summaryRepository.computeDates(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                    .thenReturn(List.of(dates(1L, null, null, null), dates(2L, null, null, null)));
+            Mockito
+                    .when(summaryRepository.existsById(anyLong()))
+                    .thenAnswer(invocation -> invocation.getArgument(0).equals(2L));
+
+            summaryService.backfill();
+
+            ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+            Mockito.verify(summaryRepository).save(captor.capture());
+            assertEquals(1L, captor.getValue().getItemId());
+        }
+    }
+
+    @Test
+    void givenSummary_whenIsValidAt_gotTrueOnlyInsideComputedPeriod() {
+        LocalDateTime now = LocalDateTime.parse("2025-01-01T00:00:00");
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(1L)
+                .validUntil(now.plusDays(1))
+                .computedAt(now)
+                .build();
+
+        assertTrue(summary.isValidAt(now));
+        assertTrue(summary.isValidAt(now.plusHours(23)));
+        assertFalse(summary.isValidAt(now.plusDays(1)));
+        assertFalse(summary.isValidAt(now.minusSeconds(1)));
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return new Booking(1L, start, end, item, booker, BookingStatus.WAITING);
+    }
+
+    private ItemBookingDates dates(long id, LocalDateTime last, LocalDateTime next, LocalDateTime validUntil) {
+        return new ItemBookingDates() {
+            public Long getId() {
+                return id;
+            }
+
+            public LocalDateTime getLastBooking() {
+                return last;
+            }
+
+            public LocalDateTime getNextBooking() {
+                return next;
+            }
+
+            public LocalDateTime getValidUntil() {
+                return validUntil;
+            }
+        };
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CreateCommentRequest;
@@ -24,6 +25,8 @@ import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -141,6 +144,56 @@ class ItemControllerTest {
         }
     }
 
+    @Nested
+    class CreateItems {
+
+        @Test
+        void givenValidRequests_whenCreate_gotCreatedItems() throws Exception {
+            Item other = new Item(2L, owner, "other", "other item", true, new ArrayList<>());
+            List<CreateItemRequest> requests = List.of(
+                    new CreateItemRequest(item.getName(), item.getDescription(), true, null),
+                    new CreateItemRequest(other.getName(), other.getDescription(), true, null));
+
+            Mockito
+                    .when(itemService.createItems(Mockito.anyList(), Mockito.eq(owner.getId())))
+                    .thenReturn(List.of(item, other));
+
+            mvc.perform(post("/items/batch")
+                            .content(mapper.writeValueAsString(requests))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.length()", equalTo(2)))
+                    .andExpect(jsonPath("$[1].id", equalTo(2)));
+        }
+
+        @Test
+        void givenInvalidRequestInBatch_whenCreate_gotValidationException() throws Exception {
+            List<CreateItemRequest> requests = List.of(
+                    new CreateItemRequest(item.getName(), item.getDescription(), true, null),
+                    new CreateItemRequest("", item.getDescription(), true, null));
+
+            mvc.perform(post("/items/batch")
+                            .content(mapper.writeValueAsString(requests))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isBadRequest());
+            Mockito.verifyNoInteractions(itemService);
+        }
+
+        @Test
+        void givenEmptyBatch_whenCreate_gotValidationException() throws Exception {
+            mvc.perform(post("/items/batch")
+                            .content("[]")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     class UpdateItem {
 
@@ -212,6 +265,20 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.comments", equalTo(List.of())));
     }
 
+    @Test
+    void givenCurrentETag_whenGetById_gotNotModified() throws Exception {
+        Mockito
+                .when(itemService.getById(item.getId()))
+                .thenReturn(item);
+
+        mvc.perform(get("/items/" + item.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + item.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + item.getVersion() + "\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getByUserId() throws Exception {
 
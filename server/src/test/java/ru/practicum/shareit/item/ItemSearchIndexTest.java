@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSearchEntry;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setup() {
+        index = new ItemSearchIndex(itemRepository);
+        owner = new User(1L, "owner", "owner@mail.ru");
+    }
+
+    @Nested
+    class Build {
+
+        @Test
+        void givenNotBuiltIndex_whenIsReady_gotFalse() {
+            assertFalse(index.isReady());
+        }
+
+        @Test
+        void givenAvailableItemsInDatabase_whenBuild_gotThemIndexed() {
+            Mockito
+                    .when(itemRepository.findSearchEntries(0L, Limit.of(1000)))
+                    .thenReturn(List.of(entry(1L, "Дрель", "Простая дрель"), entry(2L, "Отвертка", "Аккумуляторная")));
+
+            index.build();
+
+            assertTrue(index.isReady());
+            assertIterableEquals(List.of(1L), index.search("дРеЛь"));
+            assertIterableEquals(List.of(2L), index.search("аккум"));
+        }
+
+        @Test
+        void givenItemUpdatedDuringBuild_whenBuild_gotActualVersionKept() {
+            index.index(item(1L, "Новая дрель", "Простая дрель", true));
+
+            Mockito
+                    .when(itemRepository.findSearchEntries(0L, Limit.of(1000)))
+                    .thenReturn(List.of(entry(1L, "Старая дрель", "Простая дрель")));
+
+            index.build();
+
+            assertIterableEquals(List.of(1L), index.search("новая"));
+            assertTrue(index.search("старая").isEmpty());
+        }
+    }
+
+    @Nested
+    class Search {
+
+        @BeforeEach
+        void setup() {
+            index.index(item(1L, "Дрель", "Простая дрель", true));
+            index.index(item(2L, "Отвертка", "Аккумуляторная отвертка", true));
+            index.index(item(3L, "Щётка", "Для чистки дрели", true));
+        }
+
+        @Test
+        void givenSubstringOfName_whenSearch_gotItem() {
+            assertIterableEquals(List.of(1L, 3L), index.search("дрел"));
+        }
+
+        @Test
+        void givenShortQuery_whenSearch_gotAllMatchingItems() {
+            assertIterableEquals(List.of(1L, 3L), index.search("др"));
+        }
+
+        @Test
+        void givenAbsentText_whenSearch_gotEmptyList() {
+            assertTrue(index.search("пылесос").isEmpty());
+        }
+
+        @Test
+        void givenGramsFromDifferentFields_whenSearch_gotNothing() {
+            // все триграммы запроса есть у вещи, но сама подстрока не встречается ни в одном поле
+            index.index(item(4L, "abcd", "cdef", true));
+
+            assertTrue(index.search("bcde").isEmpty());
+        }
+
+        @Test
+        void givenUpdatedItem_whenSearch_gotOnlyNewText() {
+            index.index(item(1L, "Перфоратор", "Мощный", true));
+
+            assertIterableEquals(List.of(3L), index.search("дрел"));
+            assertIterableEquals(List.of(1L), index.search("перфо"));
+        }
+
+        @Test
+        void givenUnavailableItem_whenSearch_gotItNotFound() {
+            index.index(item(1L, "Дрель", "Простая дрель", false));
+
+            assertIterableEquals(List.of(3L), index.search("дрел"));
+        }
+
+        @Test
+        void givenRemovedItem_whenSearch_gotItNotFound() {
+            index.remove(2L);
+
+            assertTrue(index.search("отвертка").isEmpty());
+        }
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return new Item(id, owner, name, description, available, new ArrayList<>());
+    }
+
+    private ItemSearchEntry entry(long id, String name, String description) {
+        return new ItemSearchEntry() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
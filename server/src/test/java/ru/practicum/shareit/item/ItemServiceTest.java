@@ -24,6 +24,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,13 +46,20 @@ class ItemServiceTest {
     @Mock
     private ItemRequestService itemRequestService;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+
     private User user;
     private User owner;
     private Item item;
 
     @BeforeEach
     void setup() {
-        itemService = new ItemService(userService, itemRepository, new ItemMapperImpl(), commentRepository, itemRequestService);
+        itemService = new ItemService(userService, itemRepository, new ItemMapperImpl(), commentRepository,
+                itemRequestService, searchIndex, bookingSummaryService);
         user = new User(1L, "user", "user@mail.ru");
         owner = new User(2L, "owner", "owner@mail.ru");
         item = new Item(1L, owner, "item", "some item", true, new ArrayList<>());
@@ -73,6 +81,8 @@ class ItemServiceTest {
 
             Mockito.verify(itemRepository, Mockito.times(1))
                     .save(Mockito.any(Item.class));
+            Mockito.verify(searchIndex, Mockito.times(1))
+                    .index(actualItem);
         }
 
         @Test
@@ -242,6 +252,33 @@ class ItemServiceTest {
         assertEquals(LocalDateTime.parse("2025-01-04T00:00:00"), items.get(1).getNextBooking());
     }
 
+    @Test
+    void givenValidSummaries_whenGetByUserId_gotDatesFromSummaries() {
+
+        Item item1 = new Item(2L, owner, "item2", "some item2", true, new ArrayList<>());
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(2L)
+                .lastBooking(LocalDateTime.parse("2025-01-01T00:00:00"))
+                .nextBooking(LocalDateTime.parse("2025-01-02T00:00:00"))
+                .computedAt(now)
+                .build();
+
+        mockUserById(owner);
+        Mockito
+                .when(itemRepository.findAllByOwnerWithComments(owner))
+                .thenReturn(List.of(item1));
+        Mockito
+                .when(bookingSummaryService.getValidByOwner(owner, now))
+                .thenReturn(Map.of(2L, summary));
+
+        List<Item> items = itemService.getByUserId(owner.getId(), now);
+
+        assertEquals(LocalDateTime.parse("2025-01-01T00:00:00"), items.getFirst().getLastBooking());
+        assertEquals(LocalDateTime.parse("2025-01-02T00:00:00"), items.getFirst().getNextBooking());
+        Mockito.verify(itemRepository, Mockito.never()).getLastAndNextBookingDate(owner, now);
+    }
+
     @Nested
     class Search {
         @Test
@@ -256,6 +293,42 @@ class ItemServiceTest {
             assertTrue(items.isEmpty());
         }
 
+        @Test
+        void givenReadyIndex_whenSearch_gotItemsFromIndex() {
+            Item item1 = new Item(2L, owner, "item2", "some item2", true, new ArrayList<>());
+            Item item2 = new Item(3L, owner, "item3", "some item3", true, new ArrayList<>());
+
+            Mockito
+                    .when(searchIndex.isReady())
+                    .thenReturn(true);
+            Mockito
+                    .when(searchIndex.search("abc"))
+                    .thenReturn(List.of(2L, 3L));
+            Mockito
+                    .when(itemRepository.findAllById(List.of(2L, 3L)))
+                    .thenReturn(List.of(item2, item1));
+
+            List<Item> items = itemService.search("abc");
+
+            assertIterableEquals(List.of(item1, item2), items);
+            Mockito.verify(itemRepository, Mockito.never()).search(Mockito.anyString());
+        }
+
+        @Test
+        void givenReadyIndexWithoutMatches_whenSearch_gotEmptyList() {
+            Mockito
+                    .when(searchIndex.isReady())
+                    .thenReturn(true);
+            Mockito
+                    .when(searchIndex.search("abc"))
+                    .thenReturn(List.of());
+
+            List<Item> items = itemService.search("abc");
+
+            assertTrue(items.isEmpty());
+            Mockito.verifyNoInteractions(itemRepository);
+        }
+
         @Test
         void givenValidString_whenSearch_gotItemList() {
             Item item1 = new Item(2L, owner, "item2", "some item2", true, new ArrayList<>());
@@ -291,6 +364,8 @@ class ItemServiceTest {
 
             Mockito.verify(itemRepository, Mockito.times(1))
                     .deleteById(item.getId());
+            Mockito.verify(searchIndex, Mockito.times(1))
+                    .remove(item.getId());
         }
     }
 
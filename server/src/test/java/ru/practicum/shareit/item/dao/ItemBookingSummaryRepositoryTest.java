@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ItemBookingSummaryRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2025-01-01T12:00:00");
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+    }
+
+    @Test
+    void givenPastCurrentAndFutureBookings_whenComputeDates_gotValidUntilNearestChange() {
+        Item item = persistItem();
+        persistBooking(item, NOW.minusDays(5), NOW.minusDays(4));
+        persistBooking(item, NOW.minusHours(1), NOW.plusHours(3));
+        persistBooking(item, NOW.plusDays(1), NOW.plusDays(2));
+
+        List<ItemBookingDates> dates = summaryRepository.computeDates(List.of(item.getId()), NOW);
+
+        assertEquals(1, dates.size());
+        assertEquals(NOW.minusDays(5), dates.getFirst().getLastBooking());
+        assertEquals(NOW.plusDays(2), dates.getFirst().getNextBooking());
+        // текущее бронирование закончится раньше, чем начнется будущее
+        assertEquals(NOW.plusHours(3), dates.getFirst().getValidUntil());
+    }
+
+    @Test
+    void givenOnlyPastBookings_whenComputeDates_gotNoValidUntil() {
+        Item item = persistItem();
+        persistBooking(item, NOW.minusDays(5), NOW.minusDays(4));
+
+        List<ItemBookingDates> dates = summaryRepository.computeDates(List.of(item.getId()), NOW);
+
+        assertEquals(NOW.minusDays(5), dates.getFirst().getLastBooking());
+        assertNull(dates.getFirst().getNextBooking());
+        assertNull(dates.getFirst().getValidUntil());
+    }
+
+    @Test
+    void givenSummaries_whenFindStaleAndMissing_gotMatchingItemIds() {
+        Item fresh = persistItem();
+        Item stale = persistItem();
+        Item missing = persistItem();
+        em.persist(new ItemBookingSummary(fresh.getId(), null, null, NOW.plusDays(1), NOW));
+        em.persist(new ItemBookingSummary(stale.getId(), null, null, NOW.minusDays(1), NOW.minusDays(2)));
+        em.flush();
+
+        assertIterableEquals(List.of(stale.getId()), summaryRepository.findStaleItemIds(NOW, 0, Limit.of(10)));
+        assertIterableEquals(List.of(missing.getId()), summaryRepository.findItemIdsWithoutSummary(0, Limit.of(10)));
+        assertEquals(2, summaryRepository.findAllByOwner(owner).size());
+    }
+
+    private Item persistItem() {
+        return em.persist(new Item(null, owner, "item", "some item", true, new ArrayList<>()));
+    }
+
+    private void persistBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        em.persist(new Booking(null, start, end, item, booker, BookingStatus.APPROVED));
+    }
+}
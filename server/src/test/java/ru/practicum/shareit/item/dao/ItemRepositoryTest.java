@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemLastNextBookDate;
+import ru.practicum.shareit.user.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ItemRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2025-01-01T12:00:00");
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setup() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+    }
+
+    @Nested
+    class GetLastAndNextBookingDate {
+
+        @Test
+        void givenPastAndFutureBookings_whenGet_gotLatestPastStartAndNearestFutureEnd() {
+            Item item = persistItem("item");
+            persistBooking(item, NOW.minusDays(10), NOW.minusDays(9));
+            persistBooking(item, NOW.minusDays(5), NOW.minusDays(4));
+            persistBooking(item, NOW.plusDays(4), NOW.plusDays(5));
+            persistBooking(item, NOW.plusDays(1), NOW.plusDays(2));
+
+            List<ItemLastNextBookDate> dates = itemRepository.getLastAndNextBookingDate(owner, NOW);
+
+            assertEquals(1, dates.size());
+            assertEquals(item.getId(), dates.getFirst().getId());
+            assertEquals(NOW.minusDays(5), dates.getFirst().getLastBooking());
+            assertEquals(NOW.plusDays(2), dates.getFirst().getNextBooking());
+        }
+
+        @Test
+        void givenCurrentBookingOnly_whenGet_gotNoDates() {
+            Item item = persistItem("item");
+            persistBooking(item, NOW.minusDays(1), NOW.plusDays(1));
+
+            List<ItemLastNextBookDate> dates = itemRepository.getLastAndNextBookingDate(owner, NOW);
+
+            assertEquals(1, dates.size());
+            assertNull(dates.getFirst().getLastBooking());
+            assertNull(dates.getFirst().getNextBooking());
+        }
+
+        @Test
+        void givenItemWithoutBookings_whenGet_gotItemWithNoDates() {
+            Item item = persistItem("item");
+
+            List<ItemLastNextBookDate> dates = itemRepository.getLastAndNextBookingDate(owner, NOW);
+
+            assertEquals(1, dates.size());
+            assertEquals(item.getId(), dates.getFirst().getId());
+            assertNull(dates.getFirst().getLastBooking());
+            assertNull(dates.getFirst().getNextBooking());
+        }
+
+        @Test
+        void givenManyBookingsPerItem_whenGet_gotJoinRowsGrowingLinearly() {
+            Item item = persistItem("item");
+
+            for (int bookings = 20; bookings <= 80; bookings += 20) {
+                for (int i = 0; i < 10; i++) {
+                    persistBooking(item, NOW.minusDays(1000).plusHours(bookings * 10L + i), NOW.minusDays(999));
+                    persistBooking(item, NOW.plusDays(999), NOW.plusDays(1000).plusHours(bookings * 10L + i));
+                }
+                em.flush();
+
+                // до агрегации соединение дает одну строку на бронирование, а не произведение
+                // числа прошедших на число будущих бронирований
+                assertEquals(bookings, countJoinRows());
+            }
+        }
+    }
+
+    @Test
+    void givenNewComment_whenFlush_gotItemVersionIncremented() {
+        Item item = persistItem("item");
+        em.flush();
+        long version = item.getVersion();
+
+        Comment comment = em.persist(new Comment(null, "comment", booker, item, Instant.now()));
+        item.getComments().add(comment);
+        em.flush();
+
+        assertEquals(version + 1, item.getVersion());
+    }
+
+    @Test
+    void givenCommentsByAuthor_whenIncrementVersions_gotOnlyCommentedItemsIncremented() {
+        Item commented = persistItem("commented");
+        Item other = persistItem("other");
+        em.persist(new Comment(null, "comment", booker, commented, Instant.now()));
+        em.flush();
+        long commentedVersion = commented.getVersion();
+        long otherVersion = other.getVersion();
+        em.clear();
+
+        itemRepository.incrementVersionsCommentedBy(booker.getId());
+
+        assertEquals(commentedVersion + 1, em.find(Item.class, commented.getId()).getVersion());
+        assertEquals(otherVersion, em.find(Item.class, other.getId()).getVersion());
+    }
+
+    private long countJoinRows() {
+        return em.getEntityManager()
+                .createQuery("SELECT count(*) " + ItemRepository.LAST_AND_NEXT_BOOK_DATE_SOURCE, Long.class)
+                .setParameter("owner", owner)
+                .getSingleResult();
+    }
+
+    private Item persistItem(String name) {
+        return em.persist(new Item(null, owner, name, "some " + name, true, new ArrayList<>()));
+    }
+
+    private void persistBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        em.persist(new Booking(null, start, end, item, booker, BookingStatus.APPROVED));
+    }
+}
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.itemRequest;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,13 +40,16 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private EntityManager em;
+
     private User user;
     private User owner;
     private Item item;
 
     @BeforeEach
     void setup() {
-        itemRequestService = new ItemRequestService(userService, new ItemRequestMapperImpl(), itemRequestRepository);
+        itemRequestService = new ItemRequestService(userService, new ItemRequestMapperImpl(), itemRequestRepository, em);
         user = new User(1L, "user", "user@mail.ru");
         owner = new User(2L, "owner", "owner@mail.ru");
         item = new Item(1L, owner, "item", "some item", true, new ArrayList<>());
@@ -135,6 +143,31 @@ class ItemRequestServiceTest {
         assertEquals(2L, actualRequest.getId());
     }
 
+    @Test
+    void givenItemWithoutRequest_whenItemChanged_gotNoLock() {
+        itemRequestService.onItemChanged(item);
+
+        Mockito.verifyNoInteractions(em);
+    }
+
+    @Test
+    void givenAnswerItem_whenItemChanged_gotRequestVersionIncrementedAndItemsEvicted() {
+        ItemRequest request = new ItemRequest(2L, "request", user, new ArrayList<>(), getCreated("2025-01-01T00:00:00"));
+        item.setItemRequest(request);
+
+        EntityManagerFactory emf = Mockito.mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = Mockito.mock(SessionFactory.class);
+        Cache cache = Mockito.mock(Cache.class);
+        Mockito.when(em.getEntityManagerFactory()).thenReturn(emf);
+        Mockito.when(emf.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        Mockito.when(sessionFactory.getCache()).thenReturn(cache);
+
+        itemRequestService.onItemChanged(item);
+
+        Mockito.verify(em).lock(request, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        Mockito.verify(cache).evictCollectionData(ItemRequest.class.getName() + ".items", 2L);
+    }
+
     private void mockUserById(User user) {
         Mockito
                 .when(userService.getById(user.getId()))
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheMetricsConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по метрикам actuator, что пользователи читаются из области users кэша второго уровня,
+ * а изменение и удаление сбрасывают запись. Каждый вызов сервиса - отдельная транзакция.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheMetricsConfig.class, UserService.class, UserMapperImpl.class})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class})
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MetricsEndpoint metrics;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        metrics = new MetricsEndpoint(meterRegistry);
+        user = userService.createUser(new CreateUserRequest("user", "user@mail.ru"));
+        // первое чтение кладет пользователя в кэш
+        userService.getById(user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void givenCachedUser_whenGetById_gotCacheHit() {
+        double hits = metric("cache.gets", "result:hit");
+        double misses = metric("cache.gets", "result:miss");
+
+        userService.getById(user.getId());
+
+        assertEquals(hits + 1, metric("cache.gets", "result:hit"));
+        assertEquals(misses, metric("cache.gets", "result:miss"));
+    }
+
+    @Test
+    void givenCachedUser_whenUpdateUser_gotCacheEvicted() {
+        double removals = metric("cache.removals");
+
+        userService.updateUser(new UpdateUserRequest("new name", null), user.getId());
+
+        assertEquals(removals + 1, metric("cache.removals"));
+        double misses = metric("cache.gets", "result:miss");
+        assertEquals("new name", userService.getById(user.getId()).getName());
+        assertTrue(metric("cache.gets", "result:miss") > misses);
+    }
+
+    @Test
+    void givenCachedUser_whenDeleteUser_gotCacheEvicted() {
+        double removals = metric("cache.removals");
+
+        userService.deleteUserById(user.getId());
+
+        assertEquals(removals + 1, metric("cache.removals"));
+        double misses = metric("cache.gets", "result:miss");
+        assertThrows(NotFoundException.class, () -> userService.getById(user.getId()));
+        assertTrue(metric("cache.gets", "result:miss") > misses);
+    }
+
+    private double metric(String name, String... tags) {
+        List<String> allTags = new ArrayList<>(List.of("cache:users"));
+        allTags.addAll(List.of(tags));
+        return metrics.metric(name, allTags).getMeasurements().getFirst().getValue();
+    }
+}
@@ -1,14 +1,17 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.user.dao.UserRepository;
 
 import java.util.Optional;
@@ -27,12 +30,18 @@ class UserServiceTest {
     @Mock
     private UserMapper mapper;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
+
     private User user1;
     private User user2;
 
     @BeforeEach
     void setup() {
-        userService = new UserService(userRepository, new UserMapperImpl());
+        userService = new UserService(userRepository, new UserMapperImpl(), itemRepository, entityManagerFactory);
 
         user1 = new User(1L, "user1", "user1@mail.ru");
         user2 = new User(2L, "user2", "user2@mail.ru");
@@ -93,6 +102,7 @@ class UserServiceTest {
 
             assertEquals("new user1", user1.getName());
             assertEquals("user1@mail.ru", user1.getEmail());
+            Mockito.verify(entityManagerFactory.getCache()).evict(User.class, user1.getId());
         }
 
         @Test
@@ -162,6 +172,7 @@ class UserServiceTest {
         userService.deleteUserById(1L);
         Mockito.verify(userRepository, Mockito.times(1))
                 .deleteById(1L);
+        Mockito.verify(entityManagerFactory.getCache()).evict(User.class, 1L);
     }
 
     void mockUserById(User user) {